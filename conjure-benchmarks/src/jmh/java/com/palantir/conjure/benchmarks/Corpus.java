@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.palantir.conjure.defs.Conjure;
+import com.palantir.conjure.parser.AnnotatedConjureSourceFile;
+import com.palantir.conjure.parser.ConjureParser;
+import com.palantir.conjure.spec.ConjureDefinition;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The conjure input of a benchmark, and what each stage of the compiler makes of it, so that every stage can be
+ * measured on its own. {@code conjure-api} is the definition of the IR itself, passed in by the build; the
+ * {@code synthetic-N} corpora are written by {@link CorpusGenerator} with N objects, unions, enums and aliases in
+ * total, spread over files of the default {@link CorpusSpec} shape.
+ */
+@State(Scope.Benchmark)
+public class Corpus {
+
+    private static final String CONJURE_API_PROPERTY = "conjure.benchmarks.conjureApi";
+    private static final String SYNTHETIC_PREFIX = "synthetic-";
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    @Param({"conjure-api", "synthetic-1000", "synthetic-10000"})
+    public String corpus;
+
+    private Path directory;
+    private List<File> files;
+    private List<AnnotatedConjureSourceFile> sources;
+    private List<String> typeExpressions;
+    private ConjureDefinition definition;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("conjure-benchmarks");
+        if (corpus.startsWith(SYNTHETIC_PREFIX)) {
+            int types = Integer.parseInt(corpus.substring(SYNTHETIC_PREFIX.length()));
+            files = CorpusGenerator.generate(CorpusSpec.withTypes(types), directory);
+        } else {
+            Preconditions.checkState(corpus.equals("conjure-api"), "Unknown corpus: %s", corpus);
+            String conjureApi = System.getProperty(CONJURE_API_PROPERTY);
+            Preconditions.checkState(conjureApi != null, "System property %s is not set", CONJURE_API_PROPERTY);
+            files = ImmutableList.of(new File(conjureApi));
+        }
+        sources = ConjureParser.parseAnnotated(files, 1);
+        typeExpressions = collectTypeExpressions(files);
+        definition = Conjure.parse(files);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    /** The source files, in the order they are given to the compiler. */
+    public List<File> files() {
+        return files;
+    }
+
+    /** The deserialized source files. */
+    public List<AnnotatedConjureSourceFile> sources() {
+        return sources;
+    }
+
+    /** Every type expression written in the source files, such as {@code map<string, list<Foo>>}. */
+    public List<String> typeExpressions() {
+        return typeExpressions;
+    }
+
+    /** The compiled and normalized IR. */
+    public ConjureDefinition definition() {
+        return definition;
+    }
+
+    /** A scratch directory that is deleted after the trial. */
+    public Path directory() {
+        return directory;
+    }
+
+    /** Type expressions as written in the YAML, found without going through the conjure parser. */
+    private static List<String> collectTypeExpressions(List<File> files) throws IOException {
+        List<String> result = new ArrayList<>();
+        for (File file : files) {
+            JsonNode root = YAML_MAPPER.readTree(file);
+            for (JsonNode object : root.path("types").path("definitions").path("objects")) {
+                addText(object.path("alias"), result);
+                addFields(object.path("fields"), result);
+                addFields(object.path("union"), result);
+            }
+            for (JsonNode error : root.path("types").path("definitions").path("errors")) {
+                addFields(error.path("safe-args"), result);
+                addFields(error.path("unsafe-args"), result);
+            }
+            for (JsonNode service : root.path("services")) {
+                for (JsonNode endpoint : service.path("endpoints")) {
+                    addFields(endpoint.path("args"), result);
+                    addText(endpoint.path("returns"), result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Adds the types of fields or arguments, given either as a bare type or as an object with a {@code type}. */
+    private static void addFields(JsonNode fields, List<String> result) {
+        Iterator<Map.Entry<String, JsonNode>> entries = fields.fields();
+        while (entries.hasNext()) {
+            JsonNode field = entries.next().getValue();
+            addText(field.isObject() ? field.path("type") : field, result);
+        }
+    }
+
+    private static void addText(JsonNode node, List<String> result) {
+        if (node.isTextual()) {
+            result.add(node.asText());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs;
+
+import com.palantir.conjure.benchmarks.Corpus;
+import com.palantir.conjure.defs.validator.ConjureDefinitionValidator;
+import com.palantir.conjure.parser.NormalizeDefinition;
+import com.palantir.conjure.spec.ConjureDefinition;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/** Turning the parsed model into the IR: conversion, definition-level validation and normalization. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DefinitionBenchmark {
+
+    @Benchmark
+    public ConjureDefinition parseConjureDef(Corpus corpus) {
+        return ConjureParserUtils.parseConjureDef(corpus.sources());
+    }
+
+    @Benchmark
+    public void validateAll(Corpus corpus) {
+        ConjureDefinitionValidator.validateAll(corpus.definition());
+    }
+
+    @Benchmark
+    public ConjureDefinition normalize(Corpus corpus) {
+        return NormalizeDefinition.normalize(corpus.definition());
+    }
+}
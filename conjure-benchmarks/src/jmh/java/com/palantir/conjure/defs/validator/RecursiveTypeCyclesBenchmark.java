@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs.validator;
+
+import com.palantir.conjure.spec.AliasDefinition;
+import com.palantir.conjure.spec.FieldDefinition;
+import com.palantir.conjure.spec.FieldName;
+import com.palantir.conjure.spec.ObjectDefinition;
+import com.palantir.conjure.spec.Type;
+import com.palantir.conjure.spec.TypeDefinition;
+import com.palantir.conjure.spec.TypeName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link RecursiveTypeCycles#find} on synthetic reference graphs much larger than real APIs. The types form chains of
+ * required references, with every type also referring to the type at the same position in the next chain, so a single
+ * depth-first search reaches every type. With {@link #cyclic} set, the last type of each chain refers back to its first
+ * type, closing one cycle per chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class RecursiveTypeCyclesBenchmark {
+
+    private static final String PACKAGE = "com.palantir.benchmarks";
+
+    @Param("100000")
+    public int types;
+
+    @Param({"10", "1000", "100000"})
+    public int chainLength;
+
+    @Param({"false", "true"})
+    public boolean cyclic;
+
+    private List<TypeDefinition> definitions;
+
+    @Setup
+    public void setup() {
+        definitions = new ArrayList<>(types);
+        for (int i = 0; i < types; i++) {
+            int chainStart = i - i % chainLength;
+            boolean chainEnd = i + 1 == Math.min(chainStart + chainLength, types);
+            // every third type is an alias, which has a single reference
+            if (i % 3 == 2 && !chainEnd) {
+                definitions.add(TypeDefinition.alias(AliasDefinition.builder()
+                        .typeName(name(i))
+                        .alias(Type.reference(name(i + 1)))
+                        .build()));
+                continue;
+            }
+            ObjectDefinition.Builder object = ObjectDefinition.builder().typeName(name(i));
+            if (!chainEnd) {
+                object.fields(field("next", i + 1));
+            } else if (cyclic) {
+                object.fields(field("first", chainStart));
+            }
+            if (i + chainLength < types) {
+                object.fields(field("nextChain", i + chainLength));
+            }
+            definitions.add(TypeDefinition.object(object.build()));
+        }
+    }
+
+    @Benchmark
+    public List<List<TypeName>> find() {
+        return RecursiveTypeCycles.find(definitions);
+    }
+
+    private static FieldDefinition field(String fieldName, int target) {
+        return FieldDefinition.builder()
+                .fieldName(FieldName.of(fieldName))
+                .type(Type.reference(name(target)))
+                .build();
+    }
+
+    private static TypeName name(int index) {
+        return TypeName.of("Type" + index, PACKAGE);
+    }
+}
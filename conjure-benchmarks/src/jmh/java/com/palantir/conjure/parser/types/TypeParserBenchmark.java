@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.parser.types;
+
+import com.palantir.conjure.benchmarks.Corpus;
+import com.palantir.parsec.ParseException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing every type expression in the corpus, without a {@link ConjureTypeCache}, with each of the {@link
+ * TypeParserImplementation}s. Lives in their package because the implementations are package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TypeParserBenchmark {
+
+    /** Name of the {@link TypeParserImplementation}, as accepted by {@code -Dconjure.typeParser}. */
+    @Param({"predictive", "parsec"})
+    public String parser;
+
+    private TypeParserImplementation implementation;
+
+    @Setup
+    public void setUp() {
+        implementation = TypeParserImplementation.valueOf(parser.toUpperCase(Locale.ROOT));
+    }
+
+    @Benchmark
+    public void parseTypeExpressions(Corpus corpus, Blackhole blackhole) throws ParseException {
+        for (String expression : corpus.typeExpressions()) {
+            blackhole.consume(implementation.parse(expression));
+        }
+    }
+}
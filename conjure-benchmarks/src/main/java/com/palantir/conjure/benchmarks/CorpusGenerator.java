@@ -0,0 +1,449 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import picocli.CommandLine;
+
+/**
+ * Writes a synthetic conjure corpus of any size, for reproducing the load of large APIs without their YAML. Every file
+ * defines objects, unions, enums, aliases, errors and services, imports files of the layer below it, and declares
+ * external types. Field, variant, argument and return types are chosen at random from primitives, collections, local,
+ * imported and external types, but the result is a function of the {@link CorpusSpec}, seed included, and always
+ * compiles: required references between objects only point to objects defined earlier, map keys are strings or
+ * enums, and aliases are never optional.
+ */
+@CommandLine.Command(
+        name = "generate-corpus",
+        description = "Write a synthetic conjure corpus.",
+        mixinStandardHelpOptions = true,
+        usageHelpWidth = 120)
+public final class CorpusGenerator implements Callable<Integer> {
+
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory()
+            .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+            .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES));
+
+    private static final List<String> PRIMITIVES = ImmutableList.of(
+            "string", "integer", "double", "boolean", "safelong", "rid", "uuid", "datetime", "any");
+    private static final List<String> ERROR_CODES =
+            ImmutableList.of("INVALID_ARGUMENT", "NOT_FOUND", "CONFLICT", "FAILED_PRECONDITION", "INTERNAL");
+
+    @CommandLine.Parameters(paramLabel = "<output>", description = "Directory to write the files to.", index = "0")
+    private String output;
+
+    @CommandLine.Option(
+            names = "--types",
+            description = "Approximate number of objects, unions, enums and aliases; sets the number of files.")
+    private Integer types;
+
+    @CommandLine.Option(names = "--seed", defaultValue = "0")
+    private long seed;
+
+    @CommandLine.Option(names = "--files", defaultValue = "10")
+    private int files;
+
+    @CommandLine.Option(names = "--objects-per-file", defaultValue = "20")
+    private int objectsPerFile;
+
+    @CommandLine.Option(names = "--fields-per-object", defaultValue = "8")
+    private int fieldsPerObject;
+
+    @CommandLine.Option(names = "--unions-per-file", defaultValue = "5")
+    private int unionsPerFile;
+
+    @CommandLine.Option(names = "--enums-per-file", defaultValue = "5")
+    private int enumsPerFile;
+
+    @CommandLine.Option(names = "--aliases-per-file", defaultValue = "10")
+    private int aliasesPerFile;
+
+    @CommandLine.Option(names = "--errors-per-file", defaultValue = "5")
+    private int errorsPerFile;
+
+    @CommandLine.Option(names = "--services-per-file", defaultValue = "1")
+    private int servicesPerFile;
+
+    @CommandLine.Option(names = "--endpoints-per-service", defaultValue = "10")
+    private int endpointsPerService;
+
+    @CommandLine.Option(names = "--import-depth", defaultValue = "3")
+    private int importDepth;
+
+    @CommandLine.Option(names = "--import-fan-out", defaultValue = "2")
+    private int importFanOut;
+
+    @CommandLine.Option(names = "--external-imports-per-file", defaultValue = "2")
+    private int externalImportsPerFile;
+
+    public static void main(String[] args) {
+        System.exit(new CommandLine(new CorpusGenerator()).execute(args));
+    }
+
+    @SuppressWarnings("BanSystemOut")
+    @Override
+    public Integer call() throws IOException {
+        CorpusSpec spec = CorpusSpec.builder()
+                .seed(seed)
+                .files(files)
+                .objectsPerFile(objectsPerFile)
+                .fieldsPerObject(fieldsPerObject)
+                .unionsPerFile(unionsPerFile)
+                .enumsPerFile(enumsPerFile)
+                .aliasesPerFile(aliasesPerFile)
+                .errorsPerFile(errorsPerFile)
+                .servicesPerFile(servicesPerFile)
+                .endpointsPerService(endpointsPerService)
+                .importDepth(importDepth)
+                .importFanOut(importFanOut)
+                .externalImportsPerFile(externalImportsPerFile)
+                .build();
+        if (types != null) {
+            int typesPerFile = spec.typesPerFile();
+            spec = CorpusSpec.builder()
+                    .from(spec)
+                    .files(Math.max(1, (types + typesPerFile - 1) / typesPerFile))
+                    .build();
+        }
+        Path directory = Paths.get(output);
+        Files.createDirectories(directory);
+        List<File> written = generate(spec, directory);
+        System.out.println("Wrote " + written.size() + " files with " + spec.types() + " types to " + directory);
+        return 0;
+    }
+
+    /** Writes the corpus described by {@code spec} to {@code directory} and returns its files in order. */
+    public static List<File> generate(CorpusSpec spec, Path directory) throws IOException {
+        CorpusWriter writer = new CorpusWriter(spec);
+        List<File> result = new ArrayList<>(spec.files());
+        for (int index = 0; index < spec.files(); index++) {
+            Path file = directory.resolve(fileName(index));
+            YAML_MAPPER.writeValue(file.toFile(), writer.file(index));
+            result.add(file.toFile());
+        }
+        return result;
+    }
+
+    private static String fileName(int index) {
+        return "corpus-" + index + ".yml";
+    }
+
+    /** Builds the YAML tree of each file. Files must be built in order, since they share one random sequence. */
+    private static final class CorpusWriter {
+        private final CorpusSpec spec;
+        private final Random random;
+        private final int layers;
+
+        private CorpusWriter(CorpusSpec spec) {
+            this.spec = spec;
+            this.random = new Random(spec.seed());
+            this.layers = spec.importDepth() + 1;
+        }
+
+        Map<String, Object> file(int index) {
+            FileTypes types = new FileTypes(index, imports(index));
+
+            Map<String, Object> imports = new LinkedHashMap<>();
+            for (int k = 0; k < spec.externalImportsPerFile(); k++) {
+                imports.put(types.external(k), map(
+                        "base-type", "string",
+                        "external", map("java", "com.palantir.synthetic.external.External" + k)));
+            }
+
+            Map<String, Object> objects = new LinkedHashMap<>();
+            for (int j = 0; j < spec.objectsPerFile(); j++) {
+                Map<String, Object> fields = new LinkedHashMap<>();
+                for (int field = 0; field < spec.fieldsPerObject(); field++) {
+                    fields.put("field" + field, fieldType(types, j));
+                }
+                objects.put(types.object(j), map("docs", "Generated object " + j + ".", "fields", fields));
+            }
+            for (int j = 0; j < spec.unionsPerFile(); j++) {
+                Map<String, Object> variants = new LinkedHashMap<>();
+                int variantCount = 2 + random.nextInt(3);
+                for (int variant = 0; variant < variantCount; variant++) {
+                    variants.put("variant" + variant, variantType(types));
+                }
+                objects.put(types.union(j), map("union", variants));
+            }
+            for (int j = 0; j < spec.enumsPerFile(); j++) {
+                List<String> values = new ArrayList<>();
+                int valueCount = 2 + random.nextInt(6);
+                for (int value = 0; value < valueCount; value++) {
+                    values.add("VALUE_" + value);
+                }
+                objects.put(types.enumType(j), map("values", values));
+            }
+            for (int j = 0; j < spec.aliasesPerFile(); j++) {
+                objects.put(types.alias(j), map("alias", aliasType(types)));
+            }
+
+            Map<String, Object> errors = new LinkedHashMap<>();
+            for (int j = 0; j < spec.errorsPerFile(); j++) {
+                errors.put("Error" + index + "n" + j, map(
+                        "namespace", "Synthetic",
+                        "code", pick(ERROR_CODES),
+                        "safe-args", map("id", "string", "detail", variantType(types)),
+                        "unsafe-args", map("message", "optional<string>")));
+            }
+
+            Map<String, Object> definitions = new LinkedHashMap<>();
+            definitions.put("default-package", types.conjurePackage);
+            definitions.put("objects", objects);
+            if (!errors.isEmpty()) {
+                definitions.put("errors", errors);
+            }
+
+            Map<String, Object> typesNode = new LinkedHashMap<>();
+            if (!types.imports.isEmpty()) {
+                Map<String, Object> conjureImports = new LinkedHashMap<>();
+                for (int k = 0; k < types.imports.size(); k++) {
+                    conjureImports.put(types.namespace(k), fileName(types.imports.get(k)));
+                }
+                typesNode.put("conjure-imports", conjureImports);
+            }
+            if (!imports.isEmpty()) {
+                typesNode.put("imports", imports);
+            }
+            typesNode.put("definitions", definitions);
+
+            Map<String, Object> services = new LinkedHashMap<>();
+            for (int s = 0; s < spec.servicesPerFile(); s++) {
+                Map<String, Object> endpoints = new LinkedHashMap<>();
+                for (int e = 0; e < spec.endpointsPerService(); e++) {
+                    endpoints.put("endpoint" + e, endpoint(types, e));
+                }
+                services.put("Service" + index + "n" + s, map(
+                        "name", "Service " + s + " of file " + index,
+                        "package", types.conjurePackage,
+                        "base-path", "/f" + index + "s" + s,
+                        "default-auth", "header",
+                        "endpoints", endpoints));
+            }
+
+            Map<String, Object> file = new LinkedHashMap<>();
+            file.put("types", typesNode);
+            if (!services.isEmpty()) {
+                file.put("services", services);
+            }
+            return file;
+        }
+
+        /** Up to {@code importFanOut} distinct earlier files of the layer below the file's own. */
+        private List<Integer> imports(int index) {
+            int layer = index % layers;
+            if (layer == 0) {
+                return ImmutableList.of();
+            }
+            List<Integer> candidates = new ArrayList<>();
+            for (int candidate = index - 1; candidate >= 0; candidate -= layers) {
+                candidates.add(candidate);
+            }
+            List<Integer> result = new ArrayList<>();
+            while (result.size() < spec.importFanOut() && !candidates.isEmpty()) {
+                // favor recent files, so imports stay local as in real code bases
+                int pick = random.nextInt(Math.min(candidates.size(), 4 * spec.importFanOut()));
+                result.add(candidates.remove(pick));
+            }
+            return result;
+        }
+
+        private Map<String, Object> endpoint(FileTypes types, int index) {
+            Map<String, Object> args = new LinkedHashMap<>();
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            switch (index % 4) {
+                case 0:
+                    endpoint.put("http", "GET /e" + index + "/{id}");
+                    args.put("id", "string");
+                    args.put("filter", map("type", "optional<string>", "param-type", "query"));
+                    args.put("trace", map(
+                            "type", "optional<string>", "param-id", "X-Trace-Id", "param-type", "header"));
+                    endpoint.put("returns", variantType(types));
+                    break;
+                case 1:
+                    endpoint.put("http", "POST /e" + index);
+                    args.put("body", types.object(random.nextInt(spec.objectsPerFile())));
+                    endpoint.put("returns", "optional<" + types.object(random.nextInt(spec.objectsPerFile())) + ">");
+                    break;
+                case 2:
+                    endpoint.put("http", "PUT /e" + index + "/{id}");
+                    args.put("id", "string");
+                    args.put("body", "list<" + types.object(random.nextInt(spec.objectsPerFile())) + ">");
+                    break;
+                default:
+                    endpoint.put("http", "DELETE /e" + index + "/{id}");
+                    args.put("id", "string");
+                    break;
+            }
+            endpoint.put("args", args);
+            return endpoint;
+        }
+
+        /** A type for a field of object {@code object}, which may only require objects defined before it. */
+        private String fieldType(FileTypes types, int object) {
+            switch (random.nextInt(9)) {
+                case 0:
+                    return "optional<" + types.anyLocal(random) + ">";
+                case 1:
+                    return "list<" + valueType(types) + ">";
+                case 2:
+                    return "set<" + keyType(types) + ">";
+                case 3:
+                    return "map<" + keyType(types) + ", " + valueType(types) + ">";
+                case 4:
+                    return object > 0 ? types.object(random.nextInt(object)) : pick(PRIMITIVES);
+                case 5:
+                    return types.enumCount() > 0 ? types.enumType(random.nextInt(types.enumCount())) : "string";
+                case 6:
+                    return types.externalCount() > 0 ? types.external(random.nextInt(types.externalCount())) : "rid";
+                case 7:
+                    return types.imports.isEmpty() ? pick(PRIMITIVES) : importedObject(types);
+                default:
+                    return pick(PRIMITIVES);
+            }
+        }
+
+        /** A type for a union variant, error argument or return value. */
+        private String variantType(FileTypes types) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    return pick(PRIMITIVES);
+                case 1:
+                    return "list<" + valueType(types) + ">";
+                default:
+                    return types.anyLocal(random);
+            }
+        }
+
+        /** An alias target: never optional, so that optional aliases cannot nest. */
+        private String aliasType(FileTypes types) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    return pick(PRIMITIVES);
+                case 1:
+                    return "map<" + keyType(types) + ", " + types.object(random.nextInt(spec.objectsPerFile())) + ">";
+                case 2:
+                    return types.imports.isEmpty() ? "list<string>" : importedObject(types);
+                default:
+                    return types.object(random.nextInt(spec.objectsPerFile()));
+            }
+        }
+
+        private String keyType(FileTypes types) {
+            return types.enumCount() > 0 && random.nextBoolean()
+                    ? types.enumType(random.nextInt(types.enumCount()))
+                    : "string";
+        }
+
+        private String valueType(FileTypes types) {
+            return random.nextBoolean() ? pick(PRIMITIVES) : types.anyLocal(random);
+        }
+
+        private String importedObject(FileTypes types) {
+            int k = random.nextInt(types.imports.size());
+            return types.namespace(k) + ".Object" + types.imports.get(k) + "n" + random.nextInt(spec.objectsPerFile());
+        }
+
+        private String pick(List<String> values) {
+            return values.get(random.nextInt(values.size()));
+        }
+
+        /** Names of the types of one file. */
+        private final class FileTypes {
+            private final int index;
+            private final List<Integer> imports;
+            private final String conjurePackage;
+
+            private FileTypes(int index, List<Integer> imports) {
+                this.index = index;
+                this.imports = imports;
+                this.conjurePackage = "com.palantir.synthetic.f" + index;
+            }
+
+            String object(int object) {
+                return "Object" + index + "n" + object;
+            }
+
+            String union(int union) {
+                return "Union" + index + "n" + union;
+            }
+
+            String enumType(int enumType) {
+                return "Enum" + index + "n" + enumType;
+            }
+
+            String alias(int alias) {
+                return "Alias" + index + "n" + alias;
+            }
+
+            String external(int external) {
+                return "External" + index + "n" + external;
+            }
+
+            String namespace(int importIndex) {
+                return "dep" + importIndex;
+            }
+
+            int enumCount() {
+                return spec.enumsPerFile();
+            }
+
+            int externalCount() {
+                return spec.externalImportsPerFile();
+            }
+
+            /** Any object, union, enum or alias of this file. */
+            String anyLocal(Random choice) {
+                int pick = choice.nextInt(spec.typesPerFile());
+                if (pick < spec.objectsPerFile()) {
+                    return object(pick);
+                }
+                pick -= spec.objectsPerFile();
+                if (pick < spec.unionsPerFile()) {
+                    return union(pick);
+                }
+                pick -= spec.unionsPerFile();
+                if (pick < spec.enumsPerFile()) {
+                    return enumType(pick);
+                }
+                return alias(pick - spec.enumsPerFile());
+            }
+        }
+    }
+
+    private static Map<String, Object> map(Object... keysAndValues) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            result.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.benchmarks;
+
+import com.google.common.base.Preconditions;
+import com.palantir.conjure.defs.ConjureImmutablesStyle;
+import org.immutables.value.Value;
+
+/**
+ * The shape of a corpus written by {@link CorpusGenerator}. Every file has the same number of each kind of definition;
+ * the files are arranged in {@link #importDepth()} + 1 layers, and each file outside the first layer imports
+ * {@link #importFanOut()} files of the layer below it.
+ */
+@Value.Immutable
+@ConjureImmutablesStyle
+public interface CorpusSpec {
+
+    /** Seed of the choices made while generating, such as field types; the same spec always yields the same files. */
+    @Value.Default
+    default long seed() {
+        return 0;
+    }
+
+    @Value.Default
+    default int files() {
+        return 10;
+    }
+
+    @Value.Default
+    default int objectsPerFile() {
+        return 20;
+    }
+
+    @Value.Default
+    default int fieldsPerObject() {
+        return 8;
+    }
+
+    @Value.Default
+    default int unionsPerFile() {
+        return 5;
+    }
+
+    @Value.Default
+    default int enumsPerFile() {
+        return 5;
+    }
+
+    @Value.Default
+    default int aliasesPerFile() {
+        return 10;
+    }
+
+    @Value.Default
+    default int errorsPerFile() {
+        return 5;
+    }
+
+    @Value.Default
+    default int servicesPerFile() {
+        return 1;
+    }
+
+    @Value.Default
+    default int endpointsPerService() {
+        return 10;
+    }
+
+    /** Length of the longest chain of {@code conjure-imports}. */
+    @Value.Default
+    default int importDepth() {
+        return 3;
+    }
+
+    /** Number of files imported by each file outside the first layer, where that many exist. */
+    @Value.Default
+    default int importFanOut() {
+        return 2;
+    }
+
+    /** Number of external types declared under {@code imports} in each file. */
+    @Value.Default
+    default int externalImportsPerFile() {
+        return 2;
+    }
+
+    /** Number of objects, unions, enums and aliases in each file. */
+    @Value.Derived
+    default int typesPerFile() {
+        return objectsPerFile() + unionsPerFile() + enumsPerFile() + aliasesPerFile();
+    }
+
+    /** Number of objects, unions, enums and aliases in the corpus. */
+    @Value.Derived
+    default int types() {
+        return files() * typesPerFile();
+    }
+
+    @Value.Check
+    default void check() {
+        Preconditions.checkArgument(files() >= 1, "files must be at least 1: %s", files());
+        Preconditions.checkArgument(
+                objectsPerFile() >= 1, "objectsPerFile must be at least 1: %s", objectsPerFile());
+        Preconditions.checkArgument(
+                fieldsPerObject() >= 1, "fieldsPerObject must be at least 1: %s", fieldsPerObject());
+        Preconditions.checkArgument(
+                unionsPerFile() >= 0
+                        && enumsPerFile() >= 0
+                        && aliasesPerFile() >= 0
+                        && errorsPerFile() >= 0
+                        && servicesPerFile() >= 0
+                        && endpointsPerService() >= 0
+                        && importDepth() >= 0
+                        && importFanOut() >= 0
+                        && externalImportsPerFile() >= 0,
+                "Counts must not be negative: %s",
+                this);
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /** The default spec with as many files as needed for at least {@code types} objects, unions, enums and aliases. */
+    static CorpusSpec withTypes(int types) {
+        CorpusSpec defaults = builder().build();
+        return builder()
+                .files(Math.max(1, (types + defaults.typesPerFile() - 1) / defaults.typesPerFile()))
+                .build();
+    }
+
+    class Builder extends ImmutableCorpusSpec.Builder {}
+}
@@ -0,0 +1,97 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.benchmarks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.palantir.conjure.defs.Conjure;
+import com.palantir.conjure.spec.ConjureDefinition;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CorpusGeneratorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSameSpecWritesSameFiles() throws IOException {
+        CorpusSpec spec = CorpusSpec.builder().seed(7).files(6).build();
+        List<File> first = CorpusGenerator.generate(spec, temporaryFolder.newFolder().toPath());
+        List<File> second = CorpusGenerator.generate(spec, temporaryFolder.newFolder().toPath());
+
+        assertThat(first).hasSameSizeAs(second);
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(first.get(i).getName()).isEqualTo(second.get(i).getName());
+            assertThat(Files.readAllBytes(first.get(i).toPath())).isEqualTo(Files.readAllBytes(second.get(i).toPath()));
+        }
+    }
+
+    @Test
+    public void testSeedChangesFiles() throws IOException {
+        List<File> first = CorpusGenerator.generate(
+                CorpusSpec.builder().seed(1).files(1).build(), temporaryFolder.newFolder().toPath());
+        List<File> second = CorpusGenerator.generate(
+                CorpusSpec.builder().seed(2).files(1).build(), temporaryFolder.newFolder().toPath());
+
+        assertThat(Files.readAllBytes(first.get(0).toPath())).isNotEqualTo(Files.readAllBytes(second.get(0).toPath()));
+    }
+
+    @Test
+    public void testCorpusCompiles() throws IOException {
+        // several seeds, so that most combinations of field, variant and alias types come up
+        for (long seed = 0; seed < 5; seed++) {
+            CorpusSpec spec = CorpusSpec.builder().seed(seed).files(9).build();
+            ConjureDefinition definition =
+                    Conjure.parse(CorpusGenerator.generate(spec, temporaryFolder.newFolder().toPath()));
+
+            assertThat(definition.getTypes()).hasSize(spec.types());
+            assertThat(definition.getErrors()).hasSize(spec.files() * spec.errorsPerFile());
+            assertThat(definition.getServices()).hasSize(spec.files() * spec.servicesPerFile());
+            assertThat(definition.getServices())
+                    .allSatisfy(service -> assertThat(service.getEndpoints()).hasSize(spec.endpointsPerService()));
+        }
+    }
+
+    @Test
+    public void testDeepImports() throws IOException {
+        CorpusSpec spec = CorpusSpec.builder().files(40).importDepth(12).importFanOut(3).build();
+        List<File> files = CorpusGenerator.generate(spec, temporaryFolder.newFolder().toPath());
+
+        assertThat(Files.readAllLines(files.get(12).toPath())).contains("  conjure-imports:");
+        assertThat(Conjure.parse(files).getTypes()).hasSize(spec.types());
+    }
+
+    @Test
+    public void testWithTypes() {
+        assertThat(CorpusSpec.withTypes(1).files()).isEqualTo(1);
+        assertThat(CorpusSpec.withTypes(100_000).types()).isBetween(100_000, 100_000 + CorpusSpec.withTypes(1).types());
+    }
+
+    @Test
+    public void testRejectsNegativeCounts() {
+        assertThatThrownBy(() -> CorpusSpec.builder().enumsPerFile(-1).build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Counts must not be negative");
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.benchmarks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.palantir.conjure.defs.Conjure;
+import com.palantir.conjure.spec.ConjureDefinition;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that compiling grows linearly with the size of the API, from 1,000 to 100,000 types, rather than measuring
+ * absolute speed: the cost per type of the largest corpus is compared with that of the smaller ones. Also checks that
+ * interning types retains less heap than not sharing them. Excluded from {@code test}; run with {@code ./gradlew
+ * :conjure-benchmarks:scalingTest}.
+ */
+public class CorpusScalingTest {
+
+    /** Slack for noise and for the JIT still improving during the small runs; quadratic growth is 100x. */
+    private static final double MAX_TIME_RATIO = 3;
+
+    private static final double MAX_ALLOCATION_RATIO = 2;
+    private static final double MAX_RETAINED_RATIO = 2;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCompileTimeAndAllocationScaleLinearly() throws IOException {
+        List<File> small = generate(1_000);
+        List<File> medium = generate(10_000);
+        List<File> large = generate(100_000);
+
+        // warm up, so that the small corpus is not measured in the interpreter
+        measure(medium, 3);
+
+        Measurement smallResult = measure(small, 10);
+        Measurement largeResult = measure(large, 2);
+
+        assertThat(largeResult.nanosPerType())
+                .as("compile time per type, 100,000 types (%s) vs 1,000 types (%s)", largeResult, smallResult)
+                .isLessThanOrEqualTo(smallResult.nanosPerType() * MAX_TIME_RATIO);
+        assertThat(largeResult.allocatedBytesPerType())
+                .as("allocation per type, 100,000 types (%s) vs 1,000 types (%s)", largeResult, smallResult)
+                .isLessThanOrEqualTo(smallResult.allocatedBytesPerType() * MAX_ALLOCATION_RATIO);
+    }
+
+    @Test
+    public void testRetainedHeapScalesLinearly() throws IOException {
+        // 1,000 types retain too little to measure reliably through the heap usage
+        double medium = retainedBytesPerType(generate(10_000));
+        double large = retainedBytesPerType(generate(100_000));
+
+        assertThat(large)
+                .as("retained bytes per type, 100,000 types vs 10,000 types (%s)", medium)
+                .isLessThanOrEqualTo(medium * MAX_RETAINED_RATIO);
+    }
+
+    @Test
+    public void testInterningReducesRetainedHeap() throws IOException {
+        List<File> files = generate(100_000);
+        // a JSON round trip rebuilds every type and type name as a separate instance, as converting without the
+        // type interner would, while keeping the content identical
+        ObjectMapper mapper = new ObjectMapper().registerModule(new Jdk8Module());
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        long before = usedHeapAfterGc(memory);
+        ConjureDefinition interned = Conjure.parse(files, 1);
+        long afterInterned = usedHeapAfterGc(memory);
+        ConjureDefinition copy = mapper.readValue(mapper.writeValueAsBytes(interned), ConjureDefinition.class);
+        long afterCopy = usedHeapAfterGc(memory);
+
+        assertThat(copy).isEqualTo(interned);
+        int types = interned.getTypes().size();
+        double internedPerType = (double) (afterInterned - before) / types;
+        double copyPerType = (double) (afterCopy - afterInterned) / types;
+        assertThat(internedPerType)
+                .as("retained bytes per type, with interning vs without (%s)", copyPerType)
+                .isLessThan(copyPerType);
+    }
+
+    private List<File> generate(int types) throws IOException {
+        return CorpusGenerator.generate(CorpusSpec.withTypes(types), temporaryFolder.newFolder().toPath());
+    }
+
+    /** The fastest of {@code runs} compilations, and the fewest bytes allocated by one. */
+    private static Measurement measure(List<File> files, int runs) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bestNanos = Long.MAX_VALUE;
+        long bestAllocated = Long.MAX_VALUE;
+        int types = 0;
+        for (int run = 0; run < runs; run++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            // parallelism 1 compiles on this thread, so its allocations are all of them
+            ConjureDefinition definition = Conjure.parse(files, 1);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            bestAllocated = Math.min(bestAllocated, threads.getThreadAllocatedBytes(threadId) - allocatedBefore);
+            types = definition.getTypes().size();
+        }
+        return new Measurement(types, bestNanos, bestAllocated);
+    }
+
+    private static double retainedBytesPerType(List<File> files) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedHeapAfterGc(memory);
+        ConjureDefinition definition = Conjure.parse(files, 1);
+        long after = usedHeapAfterGc(memory);
+        return (double) (after - before) / definition.getTypes().size();
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            memory.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static final class Measurement {
+        private final int types;
+        private final long nanos;
+        private final long allocatedBytes;
+
+        private Measurement(int types, long nanos, long allocatedBytes) {
+            this.types = types;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        double nanosPerType() {
+            return (double) nanos / types;
+        }
+
+        double allocatedBytesPerType() {
+            return (double) allocatedBytes / types;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d types in %d ms, %d MB allocated", types, nanos / 1_000_000, allocatedBytes / (1024 * 1024));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/** Runs the steps of a compilation that are independent per input on several threads. */
+public final class Concurrency {
+
+    private Concurrency() {}
+
+    /**
+     * Applies {@code function} to each of the {@code inputs} on up to {@code parallelism} daemon threads named after
+     * {@code threadName}, or on the calling thread if {@code parallelism} is 1. The results are returned in the order
+     * of {@code inputs}, and if several inputs fail, the exception thrown is the one raised by the first such input in
+     * that order, exactly as in a sequential run.
+     */
+    public static <T, R> List<R> mapInOrder(
+            Collection<T> inputs, int parallelism, String threadName, Function<? super T, ? extends R> function) {
+        Preconditions.checkArgument(parallelism >= 1, "parallelism must be at least 1: %s", parallelism);
+        if (parallelism == 1 || inputs.size() <= 1) {
+            return inputs.stream().map(function).collect(Collectors.toList());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(parallelism, inputs.size()),
+                new ThreadFactoryBuilder()
+                        .setNameFormat(threadName + "-%d")
+                        .setDaemon(true)
+                        .build());
+        try {
+            List<Future<R>> futures = inputs.stream()
+                    .map(input -> executor.<R>submit(() -> function.apply(input)))
+                    .collect(Collectors.toList());
+            List<R> results = new ArrayList<>(futures.size());
+            // wait in input order so that the reported failure does not depend on timing
+            for (Future<R> future : futures) {
+                results.add(Futures.getUnchecked(future));
+            }
+            return results;
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -16,27 +16,61 @@
 
 package com.palantir.conjure.defs;
 
+import com.google.common.cache.CacheStats;
 import com.palantir.conjure.parser.AnnotatedConjureSourceFile;
 import com.palantir.conjure.parser.ConjureParser;
 import com.palantir.conjure.parser.NormalizeDefinition;
+import com.palantir.conjure.parser.types.ConjureTypeCache;
 import com.palantir.conjure.spec.ConjureDefinition;
+import com.palantir.logsafe.SafeArg;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public final class Conjure {
     public static final Integer SUPPORTED_IR_VERSION = 1;
 
+    private static final Logger log = LoggerFactory.getLogger(Conjure.class);
+
     private Conjure() {}
 
     /**
      * Deserializes {@link ConjureDefinition} from their YAML representations in the given files.
      */
     public static ConjureDefinition parse(Collection<File> files) {
-        List<AnnotatedConjureSourceFile> sourceFiles =
-                files.stream().map(ConjureParser::parseAnnotated).collect(Collectors.toList());
-        ConjureDefinition ir = ConjureParserUtils.parseConjureDef(sourceFiles);
+        return parse(files, 1);
+    }
+
+    /**
+     * Deserializes {@link ConjureDefinition} from their YAML representations in the given files, parsing up to
+     * {@code parallelism} files concurrently. The resulting definition does not depend on {@code parallelism}.
+     */
+    public static ConjureDefinition parse(Collection<File> files, int parallelism) {
+        return parse(files, ConjureOptions.builder().parallelism(parallelism).build());
+    }
+
+    /**
+     * Deserializes {@link ConjureDefinition} from their YAML representations in the given files. The resulting
+     * definition does not depend on {@code options}.
+     */
+    public static ConjureDefinition parse(Collection<File> files, ConjureOptions options) {
+        ConjureTypeCache typeCache = new ConjureTypeCache();
+        ConjureDefinition ir;
+        if (options.incrementalCacheDirectory().isPresent()) {
+            ir = new FragmentCache(options.incrementalCacheDirectory().get().toPath())
+                    .parseConjureDef(files, options, typeCache);
+        } else {
+            List<AnnotatedConjureSourceFile> sourceFiles =
+                    ConjureParser.parseAnnotated(files, options.parallelism(), typeCache);
+            ir = ConjureParserUtils.parseConjureDef(sourceFiles, options);
+        }
+        CacheStats typeCacheStats = typeCache.stats();
+        log.debug(
+                "Parsed {} type expressions, of which {} were cached",
+                SafeArg.of("typeExpressions", typeCacheStats.requestCount()),
+                SafeArg.of("cachedTypeExpressions", typeCacheStats.hitCount()));
         return NormalizeDefinition.normalize(ir);
     }
 }
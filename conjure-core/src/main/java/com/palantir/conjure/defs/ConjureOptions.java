@@ -0,0 +1,61 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs;
+
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/** Tuning knobs for {@link Conjure#parse(java.util.Collection, ConjureOptions)}; none of them affect the output. */
+@Value.Immutable
+@ConjureImmutablesStyle
+public interface ConjureOptions {
+
+    /** Maximum number of threads used to process input files. */
+    @Value.Default
+    default int parallelism() {
+        return 1;
+    }
+
+    /**
+     * Directory in which per-file compilation results are persisted between runs. When present, only input files
+     * that changed since the previous run, or whose transitive conjure-imports changed, are parsed and converted
+     * again.
+     */
+    Optional<File> incrementalCacheDirectory();
+
+    /**
+     * Whether to log a warning for routes of different services that can serve the same request, as happens when
+     * services are mounted under a shared base path.
+     */
+    @Value.Default
+    default boolean crossServiceRouteWarnings() {
+        return true;
+    }
+
+    @Value.Check
+    default void check() {
+        Preconditions.checkArgument(parallelism() >= 1, "Parallelism must be at least 1: %s", parallelism());
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    class Builder extends ImmutableConjureOptions.Builder {}
+}
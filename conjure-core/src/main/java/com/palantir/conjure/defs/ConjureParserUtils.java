@@ -25,6 +25,7 @@ import com.palantir.conjure.defs.validator.EnumValueDefinitionValidator;
 import com.palantir.conjure.defs.validator.ErrorDefinitionValidator;
 import com.palantir.conjure.defs.validator.FieldDefinitionValidator;
 import com.palantir.conjure.defs.validator.FieldNameValidator;
+import com.palantir.conjure.defs.validator.HttpPathTemplate;
 import com.palantir.conjure.defs.validator.HttpPathValidator;
 import com.palantir.conjure.defs.validator.ObjectDefinitionValidator;
 import com.palantir.conjure.defs.validator.PackageValidator;
@@ -37,8 +38,6 @@ import com.palantir.conjure.parser.services.ParameterName;
 import com.palantir.conjure.parser.services.PathString;
 import com.palantir.conjure.parser.types.NamedTypesDefinition;
 import com.palantir.conjure.parser.types.names.ConjurePackage;
-import com.palantir.conjure.parser.types.names.Namespace;
-import com.palantir.conjure.parser.types.reference.ConjureImports;
 import com.palantir.conjure.spec.AliasDefinition;
 import com.palantir.conjure.spec.ArgumentDefinition;
 import com.palantir.conjure.spec.ArgumentName;
@@ -75,7 +74,9 @@ import com.palantir.conjure.visitor.TypeDefinitionVisitor;
 import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -173,60 +174,114 @@ public final class ConjureParserUtils {
             ConjureTypeParserVisitor.ReferenceTypeResolver typeResolver) {
         return TypeDefinition.alias(AliasDefinition.builder()
                 .typeName(name)
-                .alias(def.alias().visit(new ConjureTypeParserVisitor(typeResolver)))
+                .alias(def.alias().visit(typeResolver.typeVisitor()))
                 .docs(def.docs().map(Documentation::of))
                 .build());
     }
 
     public static Type parsePrimitiveType(com.palantir.conjure.parser.types.primitive.PrimitiveType primitiveType) {
-        return Type.primitive(PrimitiveType.valueOf(primitiveType.name()));
+        return TypeInterner.primitive(PrimitiveType.valueOf(primitiveType.name()));
     }
 
     public static TypeName createTypeName(
             String name,
             com.palantir.conjure.parser.types.BaseObjectTypeDefinition def,
             Optional<String> defaultPackage) {
-        TypeName type = TypeName.of(name, parsePackageOrElseThrow(def.conjurePackage(), defaultPackage));
+        TypeName type = TypeInterner.typeName(name, parsePackageOrElseThrow(def.conjurePackage(), defaultPackage));
         TypeNameValidator.validate(type);
         return type;
     }
 
     static ConjureDefinition parseConjureDef(Collection<AnnotatedConjureSourceFile> annotatedParsedDefs) {
+        return parseConjureDef(annotatedParsedDefs, 1);
+    }
+
+    /**
+     * Converts the given files using up to {@code parallelism} threads, then merges and validates the result. The
+     * resulting definition does not depend on {@code parallelism}.
+     */
+    static ConjureDefinition parseConjureDef(
+            Collection<AnnotatedConjureSourceFile> annotatedParsedDefs, int parallelism) {
+        return parseConjureDef(annotatedParsedDefs, ConjureOptions.builder().parallelism(parallelism).build());
+    }
+
+    /** Like {@link #parseConjureDef(Collection, int)}, validating the result as {@code options} ask. */
+    static ConjureDefinition parseConjureDef(
+            Collection<AnnotatedConjureSourceFile> annotatedParsedDefs, ConjureOptions options) {
+        return mergeConjureDefFragments(
+                parseConjureDefFragments(annotatedParsedDefs, new ParsedObjectsCache(), options.parallelism()),
+                options);
+    }
+
+    /**
+     * Runs {@link #parseConjureDefFragment} for each of the given files, using up to {@code parallelism} threads. The
+     * fragments are returned in the order of {@code annotatedParsedDefs}, and if several files fail, the exception
+     * thrown is the one raised by the first such file in that order.
+     */
+    static List<ConjureDefinition> parseConjureDefFragments(
+            Collection<AnnotatedConjureSourceFile> annotatedParsedDefs,
+            ParsedObjectsCache parsedObjectsCache,
+            int parallelism) {
+        return Concurrency.mapInOrder(
+                annotatedParsedDefs,
+                parallelism,
+                "conjure-converter",
+                annotatedParsed -> parseConjureDefFragment(annotatedParsed, parsedObjectsCache));
+    }
+
+    /**
+     * Converts and validates the types, errors and services defined in a single source file. The result only passed
+     * per-file validation; {@link #mergeConjureDefFragments} runs the definition-level validators.
+     */
+    static ConjureDefinition parseConjureDefFragment(
+            AnnotatedConjureSourceFile annotatedParsed, ParsedObjectsCache parsedObjectsCache) {
+        ConjureSourceFile parsed = annotatedParsed.conjureSourceFile();
+
+        try {
+            ConjureTypeParserVisitor.ReferenceTypeResolver typeResolver = parsedObjectsCache.typeResolver(parsed);
+
+            // Resolve objects first, so we can use them in service validations
+            Map<TypeName, TypeDefinition> objects = parsedObjectsCache.parseObjects(parsed);
+            Map<TypeName, TypeDefinition> importedObjects = parsedObjectsCache.parseImportObjects(parsed);
+            Map<TypeName, TypeDefinition> allObjects = new HashMap<>();
+            allObjects.putAll(objects);
+            allObjects.putAll(importedObjects);
+
+            DealiasingTypeVisitor dealiasingVisitor = new DealiasingTypeVisitor(allObjects);
+
+            List<ServiceDefinition> services = new ArrayList<>();
+            parsed.services().forEach((serviceName, service) -> {
+                services.add(parseService(
+                        service,
+                        TypeName.of(serviceName.name(), parseConjurePackage(service.conjurePackage())),
+                        typeResolver,
+                        dealiasingVisitor));
+            });
+
+            return ConjureDefinition.builder()
+                    .version(Conjure.SUPPORTED_IR_VERSION)
+                    .types(objects.values())
+                    .errors(parseErrors(parsed.types().definitions(), typeResolver))
+                    .services(services)
+                    .build();
+        } catch (RuntimeException e) {
+            throw new RuntimeException(
+                    String.format("Encountered error trying to parse file '%s'", annotatedParsed.sourceFile()), e);
+        }
+    }
+
+    /**
+     * Concatenates per-file fragments, in order, and validates the resulting definition as a whole, running the
+     * validators on up to {@link ConjureOptions#parallelism()} threads.
+     */
+    static ConjureDefinition mergeConjureDefFragments(Collection<ConjureDefinition> fragments, ConjureOptions options) {
         ImmutableList.Builder<ServiceDefinition> servicesBuilder = ImmutableList.builder();
         ImmutableList.Builder<ErrorDefinition> errorsBuilder = ImmutableList.builder();
         ImmutableList.Builder<TypeDefinition> typesBuilder = ImmutableList.builder();
-
-        annotatedParsedDefs.forEach(annotatedParsed -> {
-            ConjureSourceFile parsed = annotatedParsed.conjureSourceFile();
-
-            try {
-                ConjureTypeParserVisitor.ReferenceTypeResolver typeResolver =
-                        new ConjureTypeParserVisitor.ByParsedRepresentationTypeNameResolver(parsed.types());
-
-                // Resolve objects first, so we can use them in service validations
-                Map<TypeName, TypeDefinition> objects = parseObjects(parsed.types(), typeResolver);
-                Map<TypeName, TypeDefinition> importedObjects =
-                        parseImportObjects(parsed.types().conjureImports());
-                Map<TypeName, TypeDefinition> allObjects = new HashMap<>();
-                allObjects.putAll(objects);
-                allObjects.putAll(importedObjects);
-
-                DealiasingTypeVisitor dealiasingVisitor = new DealiasingTypeVisitor(allObjects);
-
-                parsed.services().forEach((serviceName, service) -> {
-                    servicesBuilder.add(parseService(
-                            service,
-                            TypeName.of(serviceName.name(), parseConjurePackage(service.conjurePackage())),
-                            typeResolver,
-                            dealiasingVisitor));
-                });
-
-                typesBuilder.addAll(objects.values());
-                errorsBuilder.addAll(parseErrors(parsed.types().definitions(), typeResolver));
-            } catch (RuntimeException e) {
-                throw new RuntimeException(
-                        String.format("Encountered error trying to parse file '%s'", annotatedParsed.sourceFile()), e);
-            }
+        fragments.forEach(fragment -> {
+            servicesBuilder.addAll(fragment.getServices());
+            errorsBuilder.addAll(fragment.getErrors());
+            typesBuilder.addAll(fragment.getTypes());
         });
 
         ConjureDefinition definition = ConjureDefinition.builder()
@@ -236,24 +291,63 @@ public final class ConjureParserUtils {
                 .services(servicesBuilder.build())
                 .build();
 
-        ConjureDefinitionValidator.validateAll(definition);
+        ConjureDefinitionValidator.validateAll(definition, options);
         return definition;
     }
 
-    /*
-     * Recursively resolve all imported types
+    /**
+     * Memoizes the conversion of parsed source files to {@link TypeDefinition}s, so that each file is converted and
+     * validated once per compilation rather than once per importer. Entries are keyed by identity:
+     * {@link com.palantir.conjure.parser.ConjureParser} hands out a single {@link ConjureSourceFile} instance per
+     * physical file, and structural hashing of whole source files would cost more than it saves.
+     *
+     * <p>The cache may be shared by threads converting different files. Conversions run outside the lock, so a file
+     * first requested by several threads at once may be converted more than once; the first result stored wins.
      */
-    private static Map<TypeName, TypeDefinition> parseImportObjects(Map<Namespace, ConjureImports> conjureImports) {
-        Map<TypeName, TypeDefinition> allDefinitions = new HashMap<>();
-        conjureImports.values().forEach(conjureImport -> {
-            ConjureSourceFile conjureDef = conjureImport.conjure();
-            ReferenceTypeResolver importTypeResolver =
-                    new ConjureTypeParserVisitor.ByParsedRepresentationTypeNameResolver(conjureDef.types());
-            allDefinitions.putAll(parseImportObjects(conjureDef.types().conjureImports()));
-            allDefinitions.putAll(parseObjects(conjureDef.types(), importTypeResolver));
-        });
+    static final class ParsedObjectsCache {
+        private final Map<ConjureSourceFile, Map<TypeName, TypeDefinition>> objects =
+                Collections.synchronizedMap(new IdentityHashMap<>());
+        private final Map<ConjureSourceFile, Map<TypeName, TypeDefinition>> importedObjects =
+                Collections.synchronizedMap(new IdentityHashMap<>());
+        private final TypeSymbolTable symbolTable = new TypeSymbolTable();
+
+        /** Resolves the references made by the given file, sharing resolved types across the compilation. */
+        ReferenceTypeResolver typeResolver(ConjureSourceFile file) {
+            return symbolTable.resolver(file.types());
+        }
+
+        /** Types defined directly in the given file. */
+        Map<TypeName, TypeDefinition> parseObjects(ConjureSourceFile file) {
+            Map<TypeName, TypeDefinition> result = objects.get(file);
+            if (result == null) {
+                result = Collections.unmodifiableMap(
+                        ConjureParserUtils.parseObjects(file.types(), typeResolver(file)));
+                Map<TypeName, TypeDefinition> existing = objects.putIfAbsent(file, result);
+                if (existing != null) {
+                    result = existing;
+                }
+            }
+            return result;
+        }
 
-        return allDefinitions;
+        /** Recursively resolve all types imported by the given file. */
+        Map<TypeName, TypeDefinition> parseImportObjects(ConjureSourceFile file) {
+            // computeIfAbsent does not support recursive updates of the same map
+            Map<TypeName, TypeDefinition> result = importedObjects.get(file);
+            if (result == null) {
+                Map<TypeName, TypeDefinition> allDefinitions = new HashMap<>();
+                file.types().conjureImports().values().forEach(conjureImport -> {
+                    allDefinitions.putAll(parseImportObjects(conjureImport.conjure()));
+                    allDefinitions.putAll(parseObjects(conjureImport.conjure()));
+                });
+                result = Collections.unmodifiableMap(allDefinitions);
+                Map<TypeName, TypeDefinition> existing = importedObjects.putIfAbsent(file, result);
+                if (existing != null) {
+                    result = existing;
+                }
+            }
+            return result;
+        }
     }
 
     static ServiceDefinition parseService(
@@ -331,7 +425,7 @@ public final class ConjureParserUtils {
                 .map(entry -> {
                     FieldDefinition fieldDefinition = FieldDefinition.builder()
                             .fieldName(parseFieldName(entry.getKey()))
-                            .type(entry.getValue().type().visit(new ConjureTypeParserVisitor(typeResolver)))
+                            .type(entry.getValue().type().visit(typeResolver.typeVisitor()))
                             .docs(entry.getValue().docs().map(Documentation::of))
                             .deprecated(entry.getValue().deprecated().map(Documentation::of))
                             .build();
@@ -356,30 +450,24 @@ public final class ConjureParserUtils {
             ReferenceTypeResolver typeResolver,
             DealiasingTypeVisitor dealiasingVisitor) {
 
-        HttpPath httpPath = parseHttpPath(def, basePath);
+        HttpPath httpPath = HttpPath.of(basePath.resolve(def.http().path()).toString());
+        HttpPathTemplate pathTemplate = HttpPathValidator.parseAndValidate(httpPath);
         EndpointDefinition endpoint = EndpointDefinition.builder()
                 .endpointName(EndpointName.of(name))
                 .httpMethod(HttpMethod.valueOf(def.http().method()))
                 .httpPath(httpPath)
                 .auth(def.auth().map(ConjureParserUtils::parseAuthType).orElse(defaultAuth))
-                .args(parseArgs(def.args(), httpPath, typeResolver))
+                .args(parseArgs(def.args(), pathTemplate, typeResolver))
                 .markers(parseMarkers(def.markers(), typeResolver))
-                .returns(def.returns().map(t -> t.visit(new ConjureTypeParserVisitor(typeResolver))))
+                .returns(def.returns().map(t -> t.visit(typeResolver.typeVisitor())))
                 .docs(def.docs().map(Documentation::of))
                 .deprecated(def.deprecated().map(Documentation::of))
                 .build();
 
-        EndpointDefinitionValidator.validateAll(endpoint, dealiasingVisitor);
+        EndpointDefinitionValidator.validateAll(endpoint, pathTemplate, dealiasingVisitor);
         return endpoint;
     }
 
-    private static HttpPath parseHttpPath(
-            com.palantir.conjure.parser.services.EndpointDefinition def, PathString basePath) {
-        HttpPath httpPath = HttpPath.of(basePath.resolve(def.http().path()).toString());
-        HttpPathValidator.validate(httpPath);
-        return httpPath;
-    }
-
     private static Optional<AuthType> parseAuthType(
             com.palantir.conjure.parser.services.AuthDefinition authDefinition) {
 
@@ -397,7 +485,7 @@ public final class ConjureParserUtils {
 
     private static List<ArgumentDefinition> parseArgs(
             Map<ParameterName, com.palantir.conjure.parser.services.ArgumentDefinition> args,
-            HttpPath httpPath,
+            HttpPathTemplate pathTemplate,
             ReferenceTypeResolver typeResolver) {
         ImmutableList.Builder<ArgumentDefinition> resultBuilder = ImmutableList.builder();
         for (Map.Entry<
@@ -406,10 +494,10 @@ public final class ConjureParserUtils {
                 entry : args.entrySet()) {
             com.palantir.conjure.parser.services.ArgumentDefinition original = entry.getValue();
             ArgumentName argName = ArgumentName.of(entry.getKey().name());
-            ParameterType paramType = parseParameterType(original, argName, httpPath);
+            ParameterType paramType = parseParameterType(original, argName, pathTemplate);
             ArgumentDefinition.Builder builder = ArgumentDefinition.builder()
                     .argName(argName)
-                    .type(original.type().visit(new ConjureTypeParserVisitor(typeResolver)))
+                    .type(original.type().visit(typeResolver.typeVisitor()))
                     .paramType(paramType)
                     .docs(original.docs().map(Documentation::of))
                     .markers(parseMarkers(original.markers(), typeResolver));
@@ -421,9 +509,9 @@ public final class ConjureParserUtils {
     private static ParameterType parseParameterType(
             com.palantir.conjure.parser.services.ArgumentDefinition argumentDef,
             ArgumentName argName,
-            HttpPath httpPath) {
+            HttpPathTemplate pathTemplate) {
 
-        Set<ArgumentName> args = HttpPathValidator.pathArgs(httpPath.get());
+        Set<ArgumentName> args = pathTemplate.pathArgs();
         switch (argumentDef.paramType()) {
             case AUTO:
                 // AUTO type
@@ -455,7 +543,7 @@ public final class ConjureParserUtils {
             Set<com.palantir.conjure.parser.types.ConjureType> markers,
             ConjureTypeParserVisitor.ReferenceTypeResolver typeResolver) {
         return markers.stream()
-                .map(m -> m.visit(new ConjureTypeParserVisitor(typeResolver)))
+                .map(m -> m.visit(typeResolver.typeVisitor()))
                 .collect(Collectors.toSet());
     }
 }
@@ -17,6 +17,8 @@
 package com.palantir.conjure.defs;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.palantir.conjure.parser.types.BaseObjectTypeDefinition;
 import com.palantir.conjure.parser.types.ConjureTypeVisitor;
 import com.palantir.conjure.parser.types.TypesDefinition;
@@ -32,10 +34,11 @@ import com.palantir.conjure.parser.types.reference.ConjureImports;
 import com.palantir.conjure.parser.types.reference.ExternalTypeDefinition;
 import com.palantir.conjure.parser.types.reference.ForeignReferenceType;
 import com.palantir.conjure.parser.types.reference.LocalReferenceType;
-import com.palantir.conjure.spec.ExternalReference;
 import com.palantir.conjure.spec.Type;
 import com.palantir.conjure.spec.TypeName;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** The core translator between parsed/raw types and the IR spec representation exposed to compilers. */
 public final class ConjureTypeParserVisitor implements ConjureTypeVisitor<Type> {
@@ -44,34 +47,72 @@ public final class ConjureTypeParserVisitor implements ConjureTypeVisitor<Type>
         Type resolve(LocalReferenceType reference);
 
         Type resolve(ForeignReferenceType reference);
+
+        /** A visitor converting parsed types with this resolver. */
+        default ConjureTypeVisitor<Type> typeVisitor() {
+            return new ConjureTypeParserVisitor(this);
+        }
     }
 
+    /**
+     * Resolves the references made by one source file. Each distinct reference is resolved once and then served from
+     * a concurrent map, so one resolver may be shared by threads converting the file and the files importing it.
+     */
     // TODO(rfink): Add explicit test coverage
     public static final class ByParsedRepresentationTypeNameResolver implements ReferenceTypeResolver {
 
         private final TypesDefinition types;
+        private final TypeSymbolTable symbolTable;
+        private final Map<com.palantir.conjure.parser.types.names.TypeName, Type> localTypes =
+                new ConcurrentHashMap<>();
+        private final Map<ForeignReferenceType, Type> foreignTypes = new ConcurrentHashMap<>();
+        private final ConjureTypeParserVisitor typeVisitor = new ConjureTypeParserVisitor(this);
+        private final Supplier<Optional<String>> defaultPackage;
 
         public ByParsedRepresentationTypeNameResolver(TypesDefinition types) {
+            this(types, new TypeSymbolTable());
+        }
+
+        ByParsedRepresentationTypeNameResolver(TypesDefinition types, TypeSymbolTable symbolTable) {
             this.types = types;
+            this.symbolTable = symbolTable;
+            this.defaultPackage = Suppliers.memoize(() ->
+                    types.definitions().defaultConjurePackage().map(ConjureParserUtils::parseConjurePackage));
         }
 
         @Override
         public Type resolve(LocalReferenceType reference) {
-            return resolveFromTypeName(reference.type(), types);
+            return resolve(reference.type());
         }
 
         @Override
         public Type resolve(ForeignReferenceType reference) {
-            ConjureImports conjureImports = types.conjureImports().get(reference.namespace());
-            Preconditions.checkNotNull(conjureImports, "Import not found for namespace: %s", reference.namespace());
-            return resolveFromTypeName(
-                    reference.type(), conjureImports.conjure().types());
+            Type type = foreignTypes.get(reference);
+            if (type == null) {
+                ConjureImports conjureImports = types.conjureImports().get(reference.namespace());
+                Preconditions.checkNotNull(
+                        conjureImports, "Import not found for namespace: %s", reference.namespace());
+                type = symbolTable.resolver(conjureImports.conjure().types()).resolve(reference.type());
+                foreignTypes.putIfAbsent(reference, type);
+            }
+            return type;
+        }
+
+        @Override
+        public ConjureTypeVisitor<Type> typeVisitor() {
+            return typeVisitor;
+        }
+
+        private Type resolve(com.palantir.conjure.parser.types.names.TypeName name) {
+            Type type = localTypes.get(name);
+            if (type == null) {
+                type = resolveFromTypeName(name);
+                localTypes.putIfAbsent(name, type);
+            }
+            return type;
         }
 
-        private static Type resolveFromTypeName(
-                com.palantir.conjure.parser.types.names.TypeName name, TypesDefinition types) {
-            Optional<String> defaultPackage =
-                    types.definitions().defaultConjurePackage().map(ConjureParserUtils::parseConjurePackage);
+        private Type resolveFromTypeName(com.palantir.conjure.parser.types.names.TypeName name) {
             BaseObjectTypeDefinition maybeDirectDef =
                     types.definitions().objects().get(name);
             String conjurePackage;
@@ -87,15 +128,14 @@ public final class ConjureTypeParserVisitor implements ConjureTypeVisitor<Type>
                 conjurePackage = externalPath.substring(0, lastIndex);
                 typeName = externalPath.substring(lastIndex + 1);
 
-                return Type.external(ExternalReference.builder()
-                        .externalReference(TypeName.of(typeName, conjurePackage))
-                        .fallback(ConjureParserUtils.parsePrimitiveType(maybeExternalDef.baseType()))
-                        .build());
+                return TypeInterner.external(
+                        TypeName.of(typeName, conjurePackage),
+                        ConjureParserUtils.parsePrimitiveType(maybeExternalDef.baseType()));
             } else {
                 // Conjure-defined object
-                conjurePackage =
-                        ConjureParserUtils.parsePackageOrElseThrow(maybeDirectDef.conjurePackage(), defaultPackage);
-                return Type.reference(TypeName.of(name.name(), conjurePackage));
+                conjurePackage = ConjureParserUtils.parsePackageOrElseThrow(
+                        maybeDirectDef.conjurePackage(), defaultPackage.get());
+                return TypeInterner.reference(TypeName.of(name.name(), conjurePackage));
             }
         }
     }
@@ -108,24 +148,22 @@ public final class ConjureTypeParserVisitor implements ConjureTypeVisitor<Type>
 
     @Override
     public Type visitAny(AnyType _type) {
-        return Type.primitive(com.palantir.conjure.spec.PrimitiveType.ANY);
+        return TypeInterner.primitive(com.palantir.conjure.spec.PrimitiveType.ANY);
     }
 
     @Override
     public Type visitList(ListType type) {
-        return Type.list(com.palantir.conjure.spec.ListType.of(type.itemType().visit(this)));
+        return TypeInterner.list(type.itemType().visit(this));
     }
 
     @Override
     public Type visitMap(MapType type) {
-        return Type.map(com.palantir.conjure.spec.MapType.of(
-                type.keyType().visit(this), type.valueType().visit(this)));
+        return TypeInterner.map(type.keyType().visit(this), type.valueType().visit(this));
     }
 
     @Override
     public Type visitOptional(OptionalType type) {
-        return Type.optional(
-                com.palantir.conjure.spec.OptionalType.of(type.itemType().visit(this)));
+        return TypeInterner.optional(type.itemType().visit(this));
     }
 
     @Override
@@ -145,16 +183,16 @@ public final class ConjureTypeParserVisitor implements ConjureTypeVisitor<Type>
 
     @Override
     public Type visitSet(SetType type) {
-        return Type.set(com.palantir.conjure.spec.SetType.of(type.itemType().visit(this)));
+        return TypeInterner.set(type.itemType().visit(this));
     }
 
     @Override
     public Type visitBinary(BinaryType _type) {
-        return Type.primitive(com.palantir.conjure.spec.PrimitiveType.BINARY);
+        return TypeInterner.primitive(com.palantir.conjure.spec.PrimitiveType.BINARY);
     }
 
     @Override
     public Type visitDateTime(DateTimeType _type) {
-        return Type.primitive(com.palantir.conjure.spec.PrimitiveType.DATETIME);
+        return TypeInterner.primitive(com.palantir.conjure.spec.PrimitiveType.DATETIME);
     }
 }
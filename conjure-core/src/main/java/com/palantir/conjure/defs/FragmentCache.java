@@ -0,0 +1,415 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.palantir.conjure.parser.AnnotatedConjureSourceFile;
+import com.palantir.conjure.parser.ConjureParser;
+import com.palantir.conjure.parser.types.ConjureTypeCache;
+import com.palantir.conjure.spec.ConjureDefinition;
+import com.palantir.logsafe.SafeArg;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.immutables.value.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the result of converting each top-level source file (a {@link ConjureDefinition} fragment holding only
+ * that file's types, errors and services) in a cache directory, so that subsequent compilations only parse and
+ * convert files that changed.
+ *
+ * <p>A fragment is keyed by the hash of its file's content together with the keys of all files it transitively
+ * imports, since a file's conversion and validation depend on its imports but on no other input. The
+ * definition-level {@link com.palantir.conjure.defs.validator.ConjureDefinitionValidator validators} always run
+ * over the merged definition.
+ *
+ * <p>Files that cannot be keyed (for instance missing, cyclic or malformed imports) are simply treated as changed,
+ * which leaves reporting the problem to the regular parser.
+ *
+ * <p>Several builds, or daemon requests with different input files, may share one cache directory. The manifest is
+ * therefore merged rather than replaced, a compilation only deletes the fragments that its own files no longer use,
+ * and fragments that no compilation has used for {@link #MAX_FRAGMENT_AGE} are evicted.
+ */
+final class FragmentCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FragmentCache.class);
+
+    /** Bump whenever the fragment or manifest layout, or the conversion of source files, changes. */
+    private static final String FORMAT_VERSION = "2";
+
+    /** Fragments not read or written for this long are deleted, whichever input files they belong to. */
+    private static final Duration MAX_FRAGMENT_AGE = Duration.ofDays(14);
+
+    /**
+     * Identifies the code that converts source files: the Implementation-Version of released jars, or else a hash of
+     * the jar or class directory that conjure-core was loaded from, since unreleased builds share no version. Empty
+     * if neither can be determined, which disables the cache.
+     */
+    private static final Optional<String> COMPILER_VERSION = compilerVersion();
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+            .registerModule(new Jdk8Module())
+            .setSerializationInclusion(JsonInclude.Include.NON_ABSENT);
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    private static final String MANIFEST = "manifest.json";
+    private static final String FRAGMENTS = "fragments";
+    private static final String FRAGMENT_SUFFIX = ".json";
+
+    private final Path directory;
+    private final Path fragmentsDirectory;
+
+    FragmentCache(Path directory) {
+        this.directory = directory;
+        this.fragmentsDirectory = directory.resolve(FRAGMENTS);
+    }
+
+    /**
+     * Equivalent to {@code ConjureParserUtils.parseConjureDef(ConjureParser.parseAnnotated(files,
+     * options.parallelism(), typeCache), options)}.
+     */
+    ConjureDefinition parseConjureDef(Collection<File> files, ConjureOptions options, ConjureTypeCache typeCache) {
+        int parallelism = options.parallelism();
+        if (!COMPILER_VERSION.isPresent()) {
+            return ConjureParserUtils.parseConjureDef(
+                    ConjureParser.parseAnnotated(files, parallelism, typeCache), options);
+        }
+        Keys keys = new Keys(readManifest());
+        Map<File, Optional<String>> fileKeys = new LinkedHashMap<>();
+        files.forEach(file -> fileKeys.put(file, keys.key(file)));
+        Map<String, ManifestEntry> manifest = updateManifest(keys.current);
+
+        Map<File, ConjureDefinition> fragments = new HashMap<>();
+        List<File> staleFiles = new ArrayList<>();
+        fileKeys.forEach((file, key) -> {
+            Optional<ConjureDefinition> fragment = key.flatMap(this::readFragment);
+            if (fragment.isPresent()) {
+                fragments.put(file, fragment.get());
+            } else {
+                staleFiles.add(file);
+            }
+        });
+        log.info(
+                "Reusing cached results for {} of {} conjure files",
+                SafeArg.of("cached", fragments.size()),
+                SafeArg.of("total", files.size()));
+
+        List<AnnotatedConjureSourceFile> staleParsed = ConjureParser.parseAnnotated(staleFiles, parallelism, typeCache);
+        List<ConjureDefinition> staleFragments = ConjureParserUtils.parseConjureDefFragments(
+                staleParsed, new ConjureParserUtils.ParsedObjectsCache(), parallelism);
+        for (int i = 0; i < staleParsed.size(); i++) {
+            File file = staleParsed.get(i).sourceFile();
+            ConjureDefinition fragment = staleFragments.get(i);
+            fileKeys.get(file).ifPresent(key -> writeFragment(key, fragment));
+            fragments.put(file, fragment);
+        }
+        pruneFragments(keys.supersededKeys(), manifest);
+
+        List<ConjureDefinition> orderedFragments = new ArrayList<>(files.size());
+        files.forEach(file -> orderedFragments.add(fragments.get(file)));
+        return ConjureParserUtils.mergeConjureDefFragments(orderedFragments, options);
+    }
+
+    private static Optional<String> compilerVersion() {
+        String implementationVersion = Conjure.class.getPackage().getImplementationVersion();
+        if (implementationVersion != null) {
+            return Optional.of(implementationVersion);
+        }
+        CodeSource codeSource = Conjure.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            log.warn("Not using the incremental cache, since the conjure compiler's code cannot be located");
+            return Optional.empty();
+        }
+        try {
+            return Optional.of("development-" + hashOf(Paths.get(codeSource.getLocation().toURI())));
+        } catch (IOException | URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            log.warn("Not using the incremental cache, since the conjure compiler's code cannot be read", e);
+            return Optional.empty();
+        }
+    }
+
+    /** Hashes a jar, or the relative paths and contents of all files in a class directory. */
+    @VisibleForTesting
+    static String hashOf(Path code) throws IOException {
+        if (!Files.isDirectory(code)) {
+            return Hashing.sha256().hashBytes(Files.readAllBytes(code)).toString();
+        }
+        List<Path> classFiles;
+        try (Stream<Path> paths = Files.walk(code)) {
+            classFiles = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (Path classFile : classFiles) {
+            hasher.putString(code.relativize(classFile).toString(), StandardCharsets.UTF_8)
+                    .putBytes(Files.readAllBytes(classFile));
+        }
+        return hasher.hash().toString();
+    }
+
+    /** Computes cache keys, reusing the recorded imports of files whose content did not change. */
+    private static final class Keys {
+        private final Map<String, ManifestEntry> previous;
+        private final Map<String, ManifestEntry> current = new HashMap<>();
+        private final Map<String, Optional<String>> keys = new HashMap<>();
+        private final Set<String> currentDepthFirstPath = new HashSet<>();
+
+        private Keys(Map<String, ManifestEntry> previous) {
+            this.previous = previous;
+        }
+
+        /** Keys that files keyed by this compilation had in the previous manifest, but no longer have. */
+        Set<String> supersededKeys() {
+            Set<String> superseded = new HashSet<>();
+            current.forEach((path, entry) -> {
+                ManifestEntry previousEntry = previous.get(path);
+                if (previousEntry != null
+                        && previousEntry.key().isPresent()
+                        && !previousEntry.key().equals(entry.key())) {
+                    superseded.add(previousEntry.key().get());
+                }
+            });
+            return superseded;
+        }
+
+        Optional<String> key(File file) {
+            String path;
+            try {
+                path = file.getCanonicalPath();
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+            // computeIfAbsent does not support recursive updates of the same map
+            Optional<String> key = keys.get(path);
+            if (key == null) {
+                if (!currentDepthFirstPath.add(path)) {
+                    // cyclic import, which the parser will report
+                    return Optional.empty();
+                }
+                key = computeKey(new File(path));
+                currentDepthFirstPath.remove(path);
+                keys.put(path, key);
+            }
+            return key;
+        }
+
+        private Optional<String> computeKey(File file) {
+            byte[] content;
+            try {
+                content = Files.readAllBytes(file.toPath());
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+            String contentHash = Hashing.sha256().hashBytes(content).toString();
+            ManifestEntry previousEntry = previous.get(file.getPath());
+            Optional<List<String>> imports;
+            if (previousEntry != null && previousEntry.contentHash().equals(contentHash)) {
+                // imports are declared in the file itself, so an unchanged file has unchanged imports
+                imports = Optional.of(previousEntry.imports());
+            } else {
+                imports = readImports(file, content);
+            }
+            if (!imports.isPresent()) {
+                return Optional.empty();
+            }
+            ManifestEntry entry = ImmutableManifestEntry.builder()
+                    .contentHash(contentHash)
+                    .imports(imports.get())
+                    .build();
+            current.put(file.getPath(), entry);
+
+            Hasher hasher = Hashing.sha256()
+                    .newHasher()
+                    .putString(FORMAT_VERSION, StandardCharsets.UTF_8)
+                    .putString(COMPILER_VERSION.get(), StandardCharsets.UTF_8)
+                    .putString(contentHash, StandardCharsets.UTF_8);
+            for (String importedFile : imports.get()) {
+                Optional<String> importKey = key(new File(importedFile));
+                if (!importKey.isPresent()) {
+                    return Optional.empty();
+                }
+                hasher.putString(importKey.get(), StandardCharsets.UTF_8);
+            }
+            String key = hasher.hash().toString();
+            current.put(file.getPath(), ImmutableManifestEntry.builder().from(entry).key(key).build());
+            return Optional.of(key);
+        }
+
+        /** Canonical paths of the files declared in {@code types.conjure-imports}, in declaration order. */
+        private static Optional<List<String>> readImports(File file, byte[] content) {
+            try {
+                JsonNode conjureImports = YAML_MAPPER.readTree(content).path("types").path("conjure-imports");
+                List<String> imports = new ArrayList<>();
+                Iterator<JsonNode> importedFiles = conjureImports.elements();
+                while (importedFiles.hasNext()) {
+                    imports.add(file.toPath()
+                            .getParent()
+                            .resolve(importedFiles.next().asText())
+                            .toFile()
+                            .getCanonicalPath());
+                }
+                return Optional.of(imports);
+            } catch (IOException | RuntimeException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private Map<String, ManifestEntry> readManifest() {
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.isRegularFile(manifest)) {
+            return new HashMap<>();
+        }
+        try {
+            return JSON_MAPPER.readValue(manifest.toFile(), new TypeReference<Map<String, ManifestEntry>>() {});
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable incremental compilation manifest", e);
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Merges the entries of the files keyed by this compilation into the manifest on disk, which is read again so that
+     * entries written by other compilations in the meantime are kept. Entries of files that no longer exist are
+     * dropped. Returns the manifest as written.
+     */
+    private Map<String, ManifestEntry> updateManifest(Map<String, ManifestEntry> entries) {
+        Map<String, ManifestEntry> manifest = new TreeMap<>(readManifest());
+        manifest.putAll(entries);
+        manifest.keySet().removeIf(path -> !entries.containsKey(path) && !Files.isRegularFile(Paths.get(path)));
+        try {
+            writeAtomically(directory.resolve(MANIFEST), JSON_MAPPER.writeValueAsBytes(manifest));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write incremental compilation manifest", e);
+        }
+        return manifest;
+    }
+
+    private Optional<ConjureDefinition> readFragment(String key) {
+        Path fragment = fragmentsDirectory.resolve(key + FRAGMENT_SUFFIX);
+        if (!Files.isRegularFile(fragment)) {
+            return Optional.empty();
+        }
+        try {
+            ConjureDefinition definition = JSON_MAPPER.readValue(fragment.toFile(), ConjureDefinition.class);
+            // a used fragment is kept for another MAX_FRAGMENT_AGE
+            Files.setLastModifiedTime(fragment, FileTime.from(Instant.now()));
+            return Optional.of(definition);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable incremental compilation fragment", e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeFragment(String key, ConjureDefinition fragment) {
+        try {
+            writeAtomically(fragmentsDirectory.resolve(key + FRAGMENT_SUFFIX), JSON_MAPPER.writeValueAsBytes(fragment));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write incremental compilation fragment", e);
+        }
+    }
+
+    /**
+     * Removes the fragments that files of this compilation used before they changed, unless another file in the
+     * manifest still uses them, and any fragment that has not been used for {@link #MAX_FRAGMENT_AGE}.
+     */
+    private void pruneFragments(Set<String> supersededKeys, Map<String, ManifestEntry> manifest) {
+        if (!Files.isDirectory(fragmentsDirectory)) {
+            return;
+        }
+        Set<String> liveKeys = new HashSet<>();
+        manifest.values().forEach(entry -> entry.key().ifPresent(liveKeys::add));
+        Instant expiry = Instant.now().minus(MAX_FRAGMENT_AGE);
+        try (Stream<Path> fragments = Files.list(fragmentsDirectory)) {
+            for (Path fragment : (Iterable<Path>) fragments::iterator) {
+                String fileName = fragment.getFileName().toString();
+                // leave temporary files alone, they may belong to a concurrent compilation
+                if (!fileName.endsWith(FRAGMENT_SUFFIX)) {
+                    continue;
+                }
+                String key = fileName.substring(0, fileName.length() - FRAGMENT_SUFFIX.length());
+                boolean superseded = supersededKeys.contains(key) && !liveKeys.contains(key);
+                if (superseded || Files.getLastModifiedTime(fragment).toInstant().isBefore(expiry)) {
+                    Files.deleteIfExists(fragment);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to prune incremental compilation fragments", e);
+        }
+    }
+
+    /** Concurrent compilations may share a cache directory, so readers must never observe partial files. */
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Value.Immutable
+    @ConjureImmutablesStyle
+    @JsonSerialize(as = ImmutableManifestEntry.class)
+    @JsonDeserialize(as = ImmutableManifestEntry.class)
+    interface ManifestEntry {
+        String contentHash();
+
+        /** Canonical paths of the files this file imports directly. */
+        List<String> imports();
+
+        /** Key of the file's fragment, if its imports could be keyed too. */
+        Optional<String> key();
+    }
+}
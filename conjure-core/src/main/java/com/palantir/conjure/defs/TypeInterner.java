@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.palantir.conjure.spec.ExternalReference;
+import com.palantir.conjure.spec.ListType;
+import com.palantir.conjure.spec.MapType;
+import com.palantir.conjure.spec.OptionalType;
+import com.palantir.conjure.spec.PrimitiveType;
+import com.palantir.conjure.spec.SetType;
+import com.palantir.conjure.spec.Type;
+import com.palantir.conjure.spec.TypeName;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Canonical instances of the IR {@link Type types} and {@link TypeName type names} built while converting source
+ * files. Large definitions use the same few types, such as {@code optional<string>} or {@code list<Foo>}, over and
+ * over, so equal values built by the converters share a single instance. Since the IR types compare by identity
+ * before comparing fields, this also makes most equality checks between interned types constant time.
+ *
+ * <p>Types are interned bottom-up, so the item type of an interned {@code list<...>} is itself interned. Instances
+ * are held weakly, so the interner does not keep the definitions of finished compilations alive.
+ */
+final class TypeInterner {
+
+    private static final Interner<Type> TYPES = Interners.newWeakInterner();
+    private static final Interner<TypeName> TYPE_NAMES = Interners.newWeakInterner();
+    private static final Map<PrimitiveType.Value, Type> PRIMITIVES = new EnumMap<>(PrimitiveType.Value.class);
+
+    static {
+        for (PrimitiveType.Value value : PrimitiveType.Value.values()) {
+            if (value != PrimitiveType.Value.UNKNOWN) {
+                PRIMITIVES.put(value, Type.primitive(PrimitiveType.valueOf(value.name())));
+            }
+        }
+    }
+
+    private TypeInterner() {}
+
+    static TypeName typeName(String name, String conjurePackage) {
+        return TYPE_NAMES.intern(TypeName.of(name, conjurePackage));
+    }
+
+    static Type primitive(PrimitiveType primitiveType) {
+        Type type = PRIMITIVES.get(primitiveType.get());
+        return type != null ? type : Type.primitive(primitiveType);
+    }
+
+    static Type reference(TypeName name) {
+        return TYPES.intern(Type.reference(TYPE_NAMES.intern(name)));
+    }
+
+    static Type external(TypeName name, Type fallback) {
+        return TYPES.intern(Type.external(ExternalReference.builder()
+                .externalReference(TYPE_NAMES.intern(name))
+                .fallback(fallback)
+                .build()));
+    }
+
+    static Type list(Type itemType) {
+        return TYPES.intern(Type.list(ListType.of(itemType)));
+    }
+
+    static Type set(Type itemType) {
+        return TYPES.intern(Type.set(SetType.of(itemType)));
+    }
+
+    static Type optional(Type itemType) {
+        return TYPES.intern(Type.optional(OptionalType.of(itemType)));
+    }
+
+    static Type map(Type keyType, Type valueType) {
+        return TYPES.intern(Type.map(MapType.of(keyType, valueType)));
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs;
+
+import com.palantir.conjure.defs.ConjureTypeParserVisitor.ByParsedRepresentationTypeNameResolver;
+import com.palantir.conjure.parser.types.TypesDefinition;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The reference types of every source file of a compilation, resolved once and shared by all threads converting those
+ * files. Each file gets a single {@link ByParsedRepresentationTypeNameResolver}, which memoizes the {@code Type}
+ * resolved for each local name and each {@code namespace.Name} used by the file, so repeated references cost one hash
+ * lookup. Foreign references are resolved through the imported file's own resolver, so a type imported by many files
+ * is only resolved once.
+ *
+ * <p>Files are keyed by the identity of their {@link TypesDefinition}:
+ * {@link com.palantir.conjure.parser.ConjureParser} hands out a single instance per physical file, including to the
+ * files importing it.
+ */
+final class TypeSymbolTable {
+
+    private final Map<TypesDefinition, ByParsedRepresentationTypeNameResolver> resolvers =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /** The resolver for references made by the file with the given types. */
+    ByParsedRepresentationTypeNameResolver resolver(TypesDefinition types) {
+        // creating a resolver is cheap, since it resolves names on demand
+        return resolvers.computeIfAbsent(types, _types -> new ByParsedRepresentationTypeNameResolver(types, this));
+    }
+}
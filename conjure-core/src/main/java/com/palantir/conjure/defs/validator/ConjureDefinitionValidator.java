@@ -18,33 +18,30 @@ package com.palantir.conjure.defs.validator;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.base.Verify;
-import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
+import com.palantir.conjure.defs.Concurrency;
 import com.palantir.conjure.defs.Conjure;
+import com.palantir.conjure.defs.ConjureOptions;
+import com.palantir.conjure.routes.RouteTrie;
 import com.palantir.conjure.spec.AliasDefinition;
 import com.palantir.conjure.spec.ConjureDefinition;
-import com.palantir.conjure.spec.EnumDefinition;
-import com.palantir.conjure.spec.ErrorDefinition;
-import com.palantir.conjure.spec.FieldDefinition;
-import com.palantir.conjure.spec.ObjectDefinition;
-import com.palantir.conjure.spec.ServiceDefinition;
 import com.palantir.conjure.spec.Type;
 import com.palantir.conjure.spec.TypeDefinition;
 import com.palantir.conjure.spec.TypeName;
-import com.palantir.conjure.spec.UnionDefinition;
-import com.palantir.conjure.visitor.DealiasingTypeVisitor;
 import com.palantir.conjure.visitor.TypeDefinitionVisitor;
 import com.palantir.conjure.visitor.TypeVisitor;
+import com.palantir.logsafe.SafeArg;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @com.google.errorprone.annotations.Immutable
 public enum ConjureDefinitionValidator implements ConjureValidator<ConjureDefinition> {
@@ -53,12 +50,74 @@ public enum ConjureDefinitionValidator implements ConjureValidator<ConjureDefini
     NO_RECURSIVE_TYPES(new NoRecursiveTypesValidator()),
     UNIQUE_NAMES(new UniqueNamesValidator()),
     NO_NESTED_OPTIONAL(new NoNestedOptionalValidator()),
-    ILLEGAL_MAP_KEYS(new IllegalMapKeyValidator());
+    ILLEGAL_MAP_KEYS(new IllegalMapKeyValidator()),
+    CROSS_SERVICE_ROUTES(new CrossServiceRoutesValidator());
 
+    private static final Logger log = LoggerFactory.getLogger(ConjureDefinitionValidator.class);
+
+    /**
+     * Runs every validator. Validators that only look at the types used by definitions share a single
+     * {@link TypeUseTraversal} after the others have run, rather than each walking the whole definition.
+     */
     public static void validateAll(ConjureDefinition definition) {
-        for (ConjureValidator<ConjureDefinition> validator : values()) {
-            validator.validate(definition);
+        validateAll(definition, 1);
+    }
+
+    /**
+     * Like {@link #validateAll(ConjureDefinition)}, but runs the validators on up to {@code parallelism} threads. The
+     * type-use checks are split into types, errors and services, which are walked concurrently over one shared
+     * {@link TypeUseTraversal.Index}. If several validators fail, the exception thrown is the one the sequential run
+     * would have thrown.
+     */
+    public static void validateAll(ConjureDefinition definition, int parallelism) {
+        validateAll(definition, ConjureOptions.builder().parallelism(parallelism).build());
+    }
+
+    /**
+     * Like {@link #validateAll(ConjureDefinition, int)} with the {@link ConjureOptions#parallelism() parallelism} of
+     * {@code options}, skipping {@link #CROSS_SERVICE_ROUTES} unless {@link
+     * ConjureOptions#crossServiceRouteWarnings()} is set.
+     */
+    public static void validateAll(ConjureDefinition definition, ConjureOptions options) {
+        int parallelism = options.parallelism();
+        List<ConjureDefinitionValidator> standalone = new ArrayList<>();
+        List<TypeUseTraversal.Check> typeUseChecks = new ArrayList<>();
+        for (ConjureDefinitionValidator value : values()) {
+            if (value == CROSS_SERVICE_ROUTES && !options.crossServiceRouteWarnings()) {
+                continue;
+            }
+            if (value.validator instanceof TypeUseTraversal.Check) {
+                typeUseChecks.add((TypeUseTraversal.Check) value.validator);
+            } else {
+                standalone.add(value);
+            }
+        }
+        if (parallelism == 1) {
+            standalone.forEach(value -> value.validate(definition));
+            TypeUseTraversal.validate(definition, typeUseChecks);
+            return;
         }
+
+        List<Supplier<RuntimeException[]>> tasks = new ArrayList<>();
+        for (ConjureDefinitionValidator value : standalone) {
+            tasks.add(() -> {
+                value.validate(definition);
+                return new RuntimeException[0];
+            });
+        }
+        // built by the first section to run, so that a definition the index cannot be built for, such as one with
+        // duplicate type names, fails with the standalone validator's error as it does sequentially
+        Supplier<TypeUseTraversal.Index> index = Suppliers.memoize(() -> new TypeUseTraversal.Index(definition));
+        for (TypeUseTraversal.Section section : TypeUseTraversal.Section.values()) {
+            tasks.add(() -> TypeUseTraversal.failures(definition, index.get(), typeUseChecks, section));
+        }
+
+        List<RuntimeException[]> results =
+                Concurrency.mapInOrder(tasks, parallelism, "conjure-validator", Supplier::get);
+        List<RuntimeException[]> sectionFailures = results.subList(standalone.size(), results.size());
+        TypeUseTraversal.firstFailure(sectionFailures).ifPresent(failure -> {
+            throw failure;
+        });
     }
 
     private final ConjureValidator<ConjureDefinition> validator;
@@ -122,290 +181,107 @@ public enum ConjureDefinitionValidator implements ConjureValidator<ConjureDefini
         }
     }
 
+    /**
+     * Warns about routes of different services that can serve the same request, as happens when services are mounted
+     * under a shared base path. Conflicts within a service are left to {@link ServiceDefinitionValidator}.
+     */
     @com.google.errorprone.annotations.Immutable
-    private static final class NoRecursiveTypesValidator implements ConjureValidator<ConjureDefinition> {
+    private static final class CrossServiceRoutesValidator implements ConjureValidator<ConjureDefinition> {
         @Override
         public void validate(ConjureDefinition definition) {
-            // create mapping from object type name -> names of reference types that are fields of that type
-            Multimap<TypeName, TypeName> typeToRefFields = HashMultimap.create();
-
-            definition.getTypes().forEach(type -> getReferenceType(type)
-                    .ifPresent(entry -> typeToRefFields.put(type.accept(TypeDefinitionVisitor.TYPE_NAME), entry)));
-
-            for (TypeName name : typeToRefFields.keySet()) {
-                verifyTypeHasNoRecursiveDefinitions(name, typeToRefFields, new ArrayList<>());
+            if (definition.getServices().size() < 2) {
+                return;
             }
+            RouteTrie.of(definition.getServices())
+                    .crossServiceConflicts()
+                    .forEach(conflict -> log.warn(
+                            "Routes of different services conflict ({}): {}",
+                            SafeArg.of("kind", conflict.kind()),
+                            SafeArg.of("routes", conflict.routes())));
         }
+    }
 
-        private static Optional<TypeName> getReferenceType(TypeDefinition typeDef) {
-            if (typeDef.accept(TypeDefinitionVisitor.IS_OBJECT)) {
-                ObjectDefinition objectDef = typeDef.accept(TypeDefinitionVisitor.OBJECT);
-                for (FieldDefinition currField : objectDef.getFields()) {
-                    Optional<TypeName> referenceType = resolveReferenceType(currField.getType());
-                    if (referenceType.isPresent()) {
-                        return referenceType;
-                    }
-                }
-            } else if (typeDef.accept(TypeDefinitionVisitor.IS_ALIAS)) {
-                AliasDefinition aliasDef = typeDef.accept(TypeDefinitionVisitor.ALIAS);
-                return resolveReferenceType(aliasDef.getAlias());
-            }
-            return Optional.empty();
-        }
-
-        private static Optional<TypeName> resolveReferenceType(Type type) {
-            if (type.accept(TypeVisitor.IS_REFERENCE)) {
-                return Optional.of(type.accept(TypeVisitor.REFERENCE));
-            } else if (type.accept(TypeVisitor.IS_PRIMITIVE)) {
-                return Optional.of(
-                        TypeName.of(type.accept(TypeVisitor.PRIMITIVE).get().name(), ""));
-            }
-            return Optional.empty();
-        }
-
-        private void verifyTypeHasNoRecursiveDefinitions(
-                TypeName typeName, Multimap<TypeName, TypeName> typeMap, List<TypeName> path) {
-            if (path.contains(typeName)) {
-                path.add(typeName);
-                throw new IllegalStateException("Illegal recursive data type: "
-                        + Joiner.on(" -> ").join(Lists.transform(path, TypeName::getName)));
-            }
-
-            path.add(typeName);
-            for (TypeName currField : typeMap.get(typeName)) {
-                verifyTypeHasNoRecursiveDefinitions(currField, typeMap, path);
+    @com.google.errorprone.annotations.Immutable
+    private static final class NoRecursiveTypesValidator implements ConjureValidator<ConjureDefinition> {
+        @Override
+        public void validate(ConjureDefinition definition) {
+            List<List<TypeName>> cycles = RecursiveTypeCycles.find(definition.getTypes());
+            if (!cycles.isEmpty()) {
+                throw new IllegalStateException(cycles.stream()
+                        .map(cycle -> "Illegal recursive data type: "
+                                + Joiner.on(" -> ").join(Lists.transform(cycle, TypeName::getName)))
+                        .collect(Collectors.joining("\n")));
             }
-            path.remove(path.size() - 1);
         }
     }
 
     @com.google.errorprone.annotations.Immutable
-    public static final class NoNestedOptionalValidator implements ConjureValidator<ConjureDefinition> {
+    public static final class NoNestedOptionalValidator
+            implements ConjureValidator<ConjureDefinition>, TypeUseTraversal.Check {
         @Override
         public void validate(ConjureDefinition definition) {
-            // create mapping for resolving reference types during validation
-            Map<TypeName, TypeDefinition> definitionMap = definition.getTypes().stream()
-                    .collect(Collectors.toMap(entry -> entry.accept(TypeDefinitionVisitor.TYPE_NAME), entry -> entry));
-            definition.getTypes().forEach(def -> validateTypeDefinition(def, definitionMap));
-            definition.getErrors().forEach(def -> validateErrorDefinition(def, definitionMap));
-            definition.getServices().forEach(def -> validateServiceDefinition(def, definitionMap));
+            TypeUseTraversal.validate(definition, ImmutableList.of(this));
         }
 
-        private static void validateServiceDefinition(
-                ServiceDefinition serviceDef, Map<TypeName, TypeDefinition> definitionMap) {
-            serviceDef.getEndpoints().forEach(endpoint -> {
-                endpoint.getArgs().stream()
-                        .filter(arg -> recursivelyFindNestedOptionals(arg.getType(), definitionMap, false))
-                        .findAny()
-                        .ifPresent(_arg -> {
-                            throw new IllegalStateException(
-                                    "Illegal nested optionals found in one of the arguments of endpoint "
-                                            + endpoint.getEndpointName().get());
-                        });
-                endpoint.getReturns().ifPresent(returnType -> {
-                    if (recursivelyFindNestedOptionals(returnType, definitionMap, false)) {
-                        throw new IllegalStateException("Illegal nested optionals found in return type of endpoint "
-                                + endpoint.getEndpointName().get());
-                    }
-                });
-            });
-        }
-
-        private static void validateErrorDefinition(
-                ErrorDefinition errorDef, Map<TypeName, TypeDefinition> definitionMap) {
-            Stream.concat(errorDef.getSafeArgs().stream(), errorDef.getUnsafeArgs().stream())
-                    .filter(arg -> recursivelyFindNestedOptionals(arg.getType(), definitionMap, false))
-                    .findAny()
-                    .ifPresent(_arg -> {
-                        throw new IllegalStateException("Illegal nested optionals found in one of arguments of error "
-                                + errorDef.getErrorName().getName());
-                    });
+        @Override
+        public String failurePrefix() {
+            return "Illegal nested optionals found in";
         }
 
-        private static void validateTypeDefinition(
-                TypeDefinition typeDef, Map<TypeName, TypeDefinition> definitionMap) {
-
-            typeDef.accept(new TypeDefinition.Visitor<Void>() {
-                @Override
-                public Void visitAlias(AliasDefinition _value) {
-                    AliasDefinition aliasDef = typeDef.accept(TypeDefinitionVisitor.ALIAS);
-                    if (recursivelyFindNestedOptionals(aliasDef.getAlias(), definitionMap, false)) {
-                        throw new IllegalStateException("Illegal nested optionals found in alias "
-                                + aliasDef.getTypeName().getName());
-                    }
-                    return null;
-                }
-
-                @Override
-                public Void visitObject(ObjectDefinition _value) {
-                    ObjectDefinition objectDefinition = typeDef.accept(TypeDefinitionVisitor.OBJECT);
-                    objectDefinition.getFields().stream()
-                            .filter(fieldDefinition ->
-                                    recursivelyFindNestedOptionals(fieldDefinition.getType(), definitionMap, false))
-                            .findAny()
-                            .ifPresent(_found -> {
-                                throw new IllegalStateException("Illegal nested optionals found in object "
-                                        + objectDefinition.getTypeName().getName());
-                            });
-                    return null;
-                }
-
-                @Override
-                public Void visitUnion(UnionDefinition _value) {
-                    UnionDefinition unionDefinition = typeDef.accept(TypeDefinitionVisitor.UNION);
-                    unionDefinition.getUnion().stream()
-                            .filter(fieldDefinition ->
-                                    recursivelyFindNestedOptionals(fieldDefinition.getType(), definitionMap, false))
-                            .findAny()
-                            .ifPresent(_found -> {
-                                throw new IllegalStateException("Illegal nested optionals found in union "
-                                        + unionDefinition.getTypeName().getName());
-                            });
-                    return null;
-                }
-
-                @Override
-                public Void visitEnum(EnumDefinition _value) {
-                    return null;
-                }
-
-                @Override
-                public Void visitUnknown(String _unknownType) {
-                    return null;
-                }
-            });
+        @Override
+        public boolean isIllegal(Type type, TypeUseTraversal.Index index) {
+            return recursivelyFindNestedOptionals(type, index, false);
         }
 
         private static boolean recursivelyFindNestedOptionals(
-                Type type, Map<TypeName, TypeDefinition> definitionMap, boolean isOptionalSeen) {
+                Type type, TypeUseTraversal.Index index, boolean isOptionalSeen) {
             if (type.accept(TypeVisitor.IS_REFERENCE)) {
-                TypeDefinition referenceDefinition = definitionMap.get(type.accept(TypeVisitor.REFERENCE));
+                TypeDefinition referenceDefinition = index.get(type.accept(TypeVisitor.REFERENCE));
                 // we only care about reference of alias type
                 if (referenceDefinition != null && referenceDefinition.accept(TypeDefinitionVisitor.IS_ALIAS)) {
                     AliasDefinition aliasDef = referenceDefinition.accept(TypeDefinitionVisitor.ALIAS);
-                    return recursivelyFindNestedOptionals(aliasDef.getAlias(), definitionMap, isOptionalSeen);
+                    return recursivelyFindNestedOptionals(aliasDef.getAlias(), index, isOptionalSeen);
                 }
             } else if (type.accept(TypeVisitor.IS_OPTIONAL)) {
                 if (isOptionalSeen) {
                     return true;
                 }
-                return recursivelyFindNestedOptionals(
-                        type.accept(TypeVisitor.OPTIONAL).getItemType(), definitionMap, true);
+                return recursivelyFindNestedOptionals(type.accept(TypeVisitor.OPTIONAL).getItemType(), index, true);
             }
             return false;
         }
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class IllegalMapKeyValidator implements ConjureValidator<ConjureDefinition> {
+    private static final class IllegalMapKeyValidator
+            implements ConjureValidator<ConjureDefinition>, TypeUseTraversal.Check {
 
         @Override
         public void validate(ConjureDefinition definition) {
-            // create mapping for resolving reference types during validation
-            Map<TypeName, TypeDefinition> definitionMap = definition.getTypes().stream()
-                    .collect(Collectors.toMap(entry -> entry.accept(TypeDefinitionVisitor.TYPE_NAME), entry -> entry));
-            definition.getTypes().forEach(def -> validateTypeDefinition(def, definitionMap));
-            definition.getErrors().forEach(def -> validateErrorDefinition(def, definitionMap));
-            definition.getServices().forEach(def -> validateServiceDefinition(def, definitionMap));
+            TypeUseTraversal.validate(definition, ImmutableList.of(this));
         }
 
-        private static void validateServiceDefinition(
-                ServiceDefinition serviceDef, Map<TypeName, TypeDefinition> definitionMap) {
-            serviceDef.getEndpoints().forEach(endpoint -> {
-                endpoint.getArgs().stream()
-                        .filter(arg -> recursivelyFindIllegalKeys(arg.getType(), definitionMap, false))
-                        .findAny()
-                        .ifPresent(_arg -> {
-                            throw new IllegalStateException("Illegal map key found in one of the arguments of endpoint "
-                                    + endpoint.getEndpointName().get());
-                        });
-                endpoint.getReturns().ifPresent(returnType -> {
-                    if (recursivelyFindIllegalKeys(returnType, definitionMap, false)) {
-                        throw new IllegalStateException("Illegal map key found in return type of endpoint "
-                                + endpoint.getEndpointName().get());
-                    }
-                });
-            });
-        }
-
-        private static void validateErrorDefinition(
-                ErrorDefinition errorDef, Map<TypeName, TypeDefinition> definitionMap) {
-            Stream.concat(errorDef.getSafeArgs().stream(), errorDef.getUnsafeArgs().stream())
-                    .filter(arg -> recursivelyFindIllegalKeys(arg.getType(), definitionMap, false))
-                    .findAny()
-                    .ifPresent(_arg -> {
-                        throw new IllegalStateException("Illegal map key found in one of arguments of error "
-                                + errorDef.getErrorName().getName());
-                    });
+        @Override
+        public String failurePrefix() {
+            return "Illegal map key found in";
         }
 
-        private static void validateTypeDefinition(
-                TypeDefinition typeDef, Map<TypeName, TypeDefinition> definitionMap) {
-
-            typeDef.accept(new TypeDefinition.Visitor<Void>() {
-                @Override
-                public Void visitAlias(AliasDefinition _value) {
-                    AliasDefinition aliasDef = typeDef.accept(TypeDefinitionVisitor.ALIAS);
-                    if (recursivelyFindIllegalKeys(aliasDef.getAlias(), definitionMap, false)) {
-                        throw new IllegalStateException("Illegal map key found in alias "
-                                + aliasDef.getTypeName().getName());
-                    }
-                    return null;
-                }
-
-                @Override
-                public Void visitObject(ObjectDefinition _value) {
-                    ObjectDefinition objectDefinition = typeDef.accept(TypeDefinitionVisitor.OBJECT);
-                    objectDefinition.getFields().stream()
-                            .filter(fieldDefinition ->
-                                    recursivelyFindIllegalKeys(fieldDefinition.getType(), definitionMap, false))
-                            .findAny()
-                            .ifPresent(_found -> {
-                                throw new IllegalStateException("Illegal map key found in object "
-                                        + objectDefinition.getTypeName().getName());
-                            });
-                    return null;
-                }
-
-                @Override
-                public Void visitUnion(UnionDefinition _value) {
-                    UnionDefinition unionDefinition = typeDef.accept(TypeDefinitionVisitor.UNION);
-                    unionDefinition.getUnion().stream()
-                            .filter(fieldDefinition ->
-                                    recursivelyFindIllegalKeys(fieldDefinition.getType(), definitionMap, false))
-                            .findAny()
-                            .ifPresent(_found -> {
-                                throw new IllegalStateException("Illegal map key found in union "
-                                        + unionDefinition.getTypeName().getName());
-                            });
-                    return null;
-                }
-
-                @Override
-                public Void visitEnum(EnumDefinition _value) {
-                    return null;
-                }
-
-                @Override
-                public Void visitUnknown(String _unknownType) {
-                    return null;
-                }
-            });
+        @Override
+        public boolean isIllegal(Type type, TypeUseTraversal.Index index) {
+            return recursivelyFindIllegalKeys(type, index, false);
         }
 
-        private static boolean recursivelyFindIllegalKeys(
-                Type type, Map<TypeName, TypeDefinition> definitionMap, boolean isMapKey) {
+        private static boolean recursivelyFindIllegalKeys(Type type, TypeUseTraversal.Index index, boolean isMapKey) {
             if (type.accept(TypeVisitor.IS_MAP)) {
                 if (isMapKey) {
                     return true;
                 }
-                return recursivelyFindIllegalKeys(type.accept(TypeVisitor.MAP).getKeyType(), definitionMap, true)
-                        || recursivelyFindIllegalKeys(
-                                type.accept(TypeVisitor.MAP).getKeyType(), definitionMap, false);
+                return recursivelyFindIllegalKeys(type.accept(TypeVisitor.MAP).getKeyType(), index, true)
+                        || recursivelyFindIllegalKeys(type.accept(TypeVisitor.MAP).getKeyType(), index, false);
             }
 
             if (isMapKey) {
-                return new DealiasingTypeVisitor(definitionMap)
+                return index.dealiasingVisitor()
                         .dealias(type)
                         .fold(
                                 typeDefinition -> !typeDefinition.accept(TypeDefinitionVisitor.IS_ENUM),
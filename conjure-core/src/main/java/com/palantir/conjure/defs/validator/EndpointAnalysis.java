@@ -0,0 +1,177 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs.validator;
+
+import com.palantir.conjure.either.Either;
+import com.palantir.conjure.spec.ArgumentDefinition;
+import com.palantir.conjure.spec.BodyParameterType;
+import com.palantir.conjure.spec.EndpointDefinition;
+import com.palantir.conjure.spec.HeaderParameterType;
+import com.palantir.conjure.spec.ParameterType;
+import com.palantir.conjure.spec.PathParameterType;
+import com.palantir.conjure.spec.QueryParameterType;
+import com.palantir.conjure.spec.Type;
+import com.palantir.conjure.spec.TypeDefinition;
+import com.palantir.conjure.visitor.DealiasingTypeVisitor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the {@link EndpointDefinitionValidator endpoint validators} need to know about one endpoint, worked out once and
+ * shared by all of them. Each argument is classified by parameter type up front; the dealiased type of an argument is
+ * only computed the first time a check asks for it, so a check that fails first still reports its own error.
+ */
+final class EndpointAnalysis {
+
+    /** A rule about one endpoint, checked against its analysis. */
+    @com.google.errorprone.annotations.Immutable
+    interface Check extends ConjureContextualValidator<EndpointDefinition> {
+        /** Throws if the endpoint breaks this rule. */
+        void check(EndpointAnalysis endpoint);
+
+        @Override
+        default void validate(EndpointDefinition definition, DealiasingTypeVisitor dealiasingTypeVisitor) {
+            check(new EndpointAnalysis(definition, null, dealiasingTypeVisitor));
+        }
+    }
+
+    enum Kind {
+        BODY,
+        HEADER,
+        PATH,
+        QUERY,
+        UNKNOWN
+    }
+
+    /** An argument of the endpoint. */
+    static final class Argument {
+        private final ArgumentDefinition definition;
+        private final Kind kind;
+        private final DealiasingTypeVisitor dealiasingVisitor;
+        private Either<TypeDefinition, Type> dealiased;
+
+        private Argument(ArgumentDefinition definition, DealiasingTypeVisitor dealiasingVisitor) {
+            this.definition = definition;
+            this.kind = definition.getParamType().accept(KindVisitor.INSTANCE);
+            this.dealiasingVisitor = dealiasingVisitor;
+        }
+
+        ArgumentDefinition definition() {
+            return definition;
+        }
+
+        Kind kind() {
+            return kind;
+        }
+
+        /** The argument's type with outer-level aliases resolved. */
+        Either<TypeDefinition, Type> dealiased() {
+            if (dealiased == null) {
+                dealiased = dealiasingVisitor.dealias(definition.getType());
+            }
+            return dealiased;
+        }
+    }
+
+    private final EndpointDefinition definition;
+    private final DealiasingTypeVisitor dealiasingVisitor;
+    private final List<Argument> args;
+    private final Map<Kind, List<Argument>> argsByKind = new EnumMap<>(Kind.class);
+    private HttpPathTemplate pathTemplate;
+    private String description;
+
+    /** {@code pathTemplate} may be null, in which case the endpoint's path is parsed if a check needs it. */
+    EndpointAnalysis(
+            EndpointDefinition definition, HttpPathTemplate pathTemplate, DealiasingTypeVisitor dealiasingVisitor) {
+        this.definition = definition;
+        this.pathTemplate = pathTemplate;
+        this.dealiasingVisitor = dealiasingVisitor;
+        this.args = new ArrayList<>(definition.getArgs().size());
+        for (ArgumentDefinition arg : definition.getArgs()) {
+            Argument argument = new Argument(arg, dealiasingVisitor);
+            args.add(argument);
+            argsByKind.computeIfAbsent(argument.kind(), _kind -> new ArrayList<>()).add(argument);
+        }
+    }
+
+    EndpointDefinition definition() {
+        return definition;
+    }
+
+    DealiasingTypeVisitor dealiasingVisitor() {
+        return dealiasingVisitor;
+    }
+
+    /** All arguments, in declaration order. */
+    List<Argument> args() {
+        return args;
+    }
+
+    /** Arguments of the given parameter types, in declaration order. */
+    List<Argument> args(Kind kind) {
+        return argsByKind.getOrDefault(kind, Collections.emptyList());
+    }
+
+    HttpPathTemplate pathTemplate() {
+        if (pathTemplate == null) {
+            pathTemplate = HttpPathTemplate.of(definition.getHttpPath());
+        }
+        return pathTemplate;
+    }
+
+    /** The endpoint as named in error messages, e.g. {@code getBook{http: GET /books/{bookId}}}. */
+    String describe() {
+        if (description == null) {
+            description = String.format(
+                    "%s{http: %s %s}",
+                    definition.getEndpointName(), definition.getHttpMethod(), definition.getHttpPath());
+        }
+        return description;
+    }
+
+    private static final class KindVisitor implements ParameterType.Visitor<Kind> {
+        private static final KindVisitor INSTANCE = new KindVisitor();
+
+        @Override
+        public Kind visitBody(BodyParameterType _value) {
+            return Kind.BODY;
+        }
+
+        @Override
+        public Kind visitHeader(HeaderParameterType _value) {
+            return Kind.HEADER;
+        }
+
+        @Override
+        public Kind visitPath(PathParameterType _value) {
+            return Kind.PATH;
+        }
+
+        @Override
+        public Kind visitQuery(QueryParameterType _value) {
+            return Kind.QUERY;
+        }
+
+        @Override
+        public Kind visitUnknown(String _unknownType) {
+            return Kind.UNKNOWN;
+        }
+    }
+}
@@ -20,7 +20,6 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
 import com.palantir.conjure.CaseConverter;
 import com.palantir.conjure.either.Either;
-import com.palantir.conjure.spec.ArgumentDefinition;
 import com.palantir.conjure.spec.ArgumentName;
 import com.palantir.conjure.spec.EndpointDefinition;
 import com.palantir.conjure.spec.ExternalReference;
@@ -45,7 +44,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -68,48 +66,52 @@ public enum EndpointDefinitionValidator implements ConjureContextualValidator<En
     private static final Logger log = LoggerFactory.getLogger(EndpointDefinitionValidator.class);
 
     public static void validateAll(EndpointDefinition definition, DealiasingTypeVisitor dealiasingVisitor) {
+        validateAll(definition, null, dealiasingVisitor);
+    }
+
+    /**
+     * Runs every validator over a single {@link EndpointAnalysis} of the endpoint, so that arguments are classified
+     * and dealiased once for all of them. Path parameters are checked against {@code pathTemplate}, the already parsed
+     * template of the endpoint's path, or against a fresh parse of the path if it is null.
+     */
+    public static void validateAll(
+            EndpointDefinition definition, HttpPathTemplate pathTemplate, DealiasingTypeVisitor dealiasingVisitor) {
+        EndpointAnalysis endpoint = new EndpointAnalysis(definition, pathTemplate, dealiasingVisitor);
         for (EndpointDefinitionValidator validator : values()) {
-            validator.validate(definition, dealiasingVisitor);
+            validator.check.check(endpoint);
         }
     }
 
     public static final Pattern HEADER_PATTERN = Pattern.compile("^[A-Z][a-zA-Z0-9]*(-[A-Z][a-zA-Z0-9]*)*$");
 
-    private final ConjureContextualValidator<EndpointDefinition> validator;
+    private final EndpointAnalysis.Check check;
 
-    /**
-     * Simplified constructor for validators that don't need to look at the context.
-     */
-    EndpointDefinitionValidator(ConjureValidator<EndpointDefinition> validator) {
-        this.validator = (definition, _dealiasingTypeVisitor) -> validator.validate(definition);
-    }
-
-    EndpointDefinitionValidator(ConjureContextualValidator<EndpointDefinition> validator) {
-        this.validator = validator;
+    EndpointDefinitionValidator(EndpointAnalysis.Check check) {
+        this.check = check;
     }
 
     @Override
     public void validate(EndpointDefinition definition, DealiasingTypeVisitor dealiasingTypeVisitor) {
-        validator.validate(definition, dealiasingTypeVisitor);
+        check.validate(definition, dealiasingTypeVisitor);
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class NonBodyArgumentTypeValidator implements ConjureContextualValidator<EndpointDefinition> {
+    private static final class NonBodyArgumentTypeValidator implements EndpointAnalysis.Check {
         @Override
-        public void validate(EndpointDefinition definition, DealiasingTypeVisitor dealiasingTypeVisitor) {
-            definition.getArgs().stream()
-                    .filter(arg -> !arg.getParamType().accept(ParameterTypeVisitor.IS_BODY))
+        public void check(EndpointAnalysis endpoint) {
+            endpoint.args().stream()
+                    .filter(arg -> arg.kind() != EndpointAnalysis.Kind.BODY)
                     .forEach(arg -> Preconditions.checkArgument(
-                            validateType(arg.getType(), dealiasingTypeVisitor),
+                            validateType(arg.definition().getType(), arg.dealiased(), endpoint.dealiasingVisitor()),
                             "Non body parameters cannot contain the 'binary' type. "
                                     + "Parameter '%s' from endpoint '%s' violates this constraint.",
-                            arg.getArgName(),
-                            describe(definition)));
+                            arg.definition().getArgName(),
+                            endpoint.describe()));
         }
 
-        private static boolean validateType(Type input, DealiasingTypeVisitor dealiasingTypeVisitor) {
-            Optional<Type> dealiased =
-                    dealiasingTypeVisitor.dealias(input).fold(_typeDefinition -> Optional.empty(), Optional::of);
+        private static boolean validateType(
+                Type input, Either<TypeDefinition, Type> dealiasedInput, DealiasingTypeVisitor dealiasingTypeVisitor) {
+            Optional<Type> dealiased = dealiasedInput.fold(_typeDefinition -> Optional.empty(), Optional::of);
             // typeDef isn't binary
             if (!dealiased.isPresent()) {
                 return true;
@@ -126,57 +128,56 @@ public enum EndpointDefinitionValidator implements ConjureContextualValidator<En
             }
             return !type.accept(TypeVisitor.IS_BINARY) && !type.accept(TypeVisitor.IS_ANY);
         }
+
+        private static boolean validateType(Type input, DealiasingTypeVisitor dealiasingTypeVisitor) {
+            return validateType(input, dealiasingTypeVisitor.dealias(input), dealiasingTypeVisitor);
+        }
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class SingleBodyParamValidator implements ConjureValidator<EndpointDefinition> {
+    private static final class SingleBodyParamValidator implements EndpointAnalysis.Check {
         @Override
-        public void validate(EndpointDefinition definition) {
-            List<ArgumentDefinition> bodyParams = definition.getArgs().stream()
-                    .filter(entry -> entry.getParamType().accept(ParameterTypeVisitor.IS_BODY))
-                    .collect(Collectors.toList());
+        public void check(EndpointAnalysis endpoint) {
+            List<EndpointAnalysis.Argument> bodyParams = endpoint.args(EndpointAnalysis.Kind.BODY);
 
             Preconditions.checkState(
                     bodyParams.size() <= 1,
                     "Endpoint '%s' cannot have multiple body parameters: %s",
-                    describe(definition),
-                    bodyParams.stream().map(ArgumentDefinition::getArgName).collect(Collectors.toList()));
+                    endpoint.describe(),
+                    bodyParams.stream()
+                            .map(arg -> arg.definition().getArgName())
+                            .collect(Collectors.toList()));
         }
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class NoGetBodyParamValidator implements ConjureValidator<EndpointDefinition> {
+    private static final class NoGetBodyParamValidator implements EndpointAnalysis.Check {
         @Override
-        public void validate(EndpointDefinition definition) {
-            HttpMethod method = definition.getHttpMethod();
+        public void check(EndpointAnalysis endpoint) {
+            HttpMethod method = endpoint.definition().getHttpMethod();
             if (method.equals(HttpMethod.GET)) {
-                boolean hasBody = definition.getArgs().stream()
-                        .anyMatch(entry -> entry.getParamType().accept(ParameterTypeVisitor.IS_BODY));
+                boolean hasBody = !endpoint.args(EndpointAnalysis.Kind.BODY).isEmpty();
 
                 Preconditions.checkState(
-                        !hasBody, "Endpoint '%s' cannot be a GET and contain a body", describe(definition));
+                        !hasBody, "Endpoint '%s' cannot be a GET and contain a body", endpoint.describe());
             }
         }
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class NoOptionalBinaryBodyParamValidator
-            implements ConjureContextualValidator<EndpointDefinition> {
+    private static final class NoOptionalBinaryBodyParamValidator implements EndpointAnalysis.Check {
         @Override
-        public void validate(EndpointDefinition definition, DealiasingTypeVisitor dealiasingTypeVisitor) {
-            definition.getArgs().stream()
-                    .filter(entry -> entry.getParamType().accept(ParameterTypeVisitor.IS_BODY))
-                    .forEach(entry -> {
-                        boolean isOptionalBinary = dealiasingTypeVisitor
-                                .dealias(entry.getType())
-                                .fold(
-                                        _typeDef -> false, // typeDef cannot resolve to optional<binary>
-                                        NoOptionalBinaryBodyParamValidator::isOptionalBinary);
-                        Preconditions.checkState(
-                                !isOptionalBinary,
-                                "Endpoint BODY argument must not be optional<binary> or alias thereof: %s",
-                                describe(definition));
-                    });
+        public void check(EndpointAnalysis endpoint) {
+            endpoint.args(EndpointAnalysis.Kind.BODY).forEach(arg -> {
+                boolean isOptionalBinary = arg.dealiased()
+                        .fold(
+                                _typeDef -> false, // typeDef cannot resolve to optional<binary>
+                                NoOptionalBinaryBodyParamValidator::isOptionalBinary);
+                Preconditions.checkState(
+                        !isOptionalBinary,
+                        "Endpoint BODY argument must not be optional<binary> or alias thereof: %s",
+                        endpoint.describe());
+            });
         }
 
         private static boolean isOptionalBinary(Type type) {
@@ -187,24 +188,21 @@ public enum EndpointDefinitionValidator implements ConjureContextualValidator<En
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class PathParamValidator implements ConjureValidator<EndpointDefinition> {
+    private static final class PathParamValidator implements EndpointAnalysis.Check {
         @Override
-        public void validate(EndpointDefinition definition) {
-            String description = describe(definition);
+        public void check(EndpointAnalysis endpoint) {
+            String description = endpoint.describe();
             Set<ArgumentName> pathParamIds = new HashSet<>();
-            definition.getArgs().stream()
-                    .filter(entry -> entry.getParamType().accept(ParameterTypeVisitor.IS_PATH))
-                    .forEach(entry -> {
-                        boolean added = pathParamIds.add(entry.getArgName());
-                        Preconditions.checkState(
-                                added,
-                                "Path parameter with identifier \"%s\" is defined multiple times for endpoint %s",
-                                entry.getArgName().get(),
-                                description);
-                    });
-
-            Set<ArgumentName> pathArgs =
-                    HttpPathValidator.pathArgs(definition.getHttpPath().get());
+            endpoint.args(EndpointAnalysis.Kind.PATH).forEach(arg -> {
+                boolean added = pathParamIds.add(arg.definition().getArgName());
+                Preconditions.checkState(
+                        added,
+                        "Path parameter with identifier \"%s\" is defined multiple times for endpoint %s",
+                        arg.definition().getArgName().get(),
+                        description);
+            });
+
+            Set<ArgumentName> pathArgs = endpoint.pathTemplate().pathArgs();
             Set<ArgumentName> extraParams = Sets.difference(pathParamIds, pathArgs);
             Preconditions.checkState(
                     extraParams.isEmpty(),
@@ -224,144 +222,137 @@ public enum EndpointDefinitionValidator implements ConjureContextualValidator<En
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class NoComplexPathParamValidator implements ConjureContextualValidator<EndpointDefinition> {
+    private static final class NoComplexPathParamValidator implements EndpointAnalysis.Check {
         @Override
-        public void validate(EndpointDefinition definition, DealiasingTypeVisitor dealiasingTypeVisitor) {
-            definition.getArgs().stream()
-                    .filter(entry -> entry.getParamType().accept(ParameterTypeVisitor.IS_PATH))
-                    .forEach(entry -> {
-                        Either<TypeDefinition, Type> resolvedType = dealiasingTypeVisitor.dealias(entry.getType());
-
-                        Boolean isValid = resolvedType.fold(
+        public void check(EndpointAnalysis endpoint) {
+            endpoint.args(EndpointAnalysis.Kind.PATH).forEach(arg -> {
+                Boolean isValid = arg.dealiased()
+                        .fold(
                                 typeDefinition -> typeDefinition.accept(TypeDefinitionVisitor.IS_ENUM),
                                 type -> type.accept(TypeVisitor.IS_PRIMITIVE));
-                        Preconditions.checkState(
-                                isValid,
-                                "Path parameters must be primitives or aliases: \"%s\" is not allowed on endpoint %s",
-                                entry.getArgName(),
-                                describe(definition));
-                    });
+                Preconditions.checkState(
+                        isValid,
+                        "Path parameters must be primitives or aliases: \"%s\" is not allowed on endpoint %s",
+                        arg.definition().getArgName(),
+                        endpoint.describe());
+            });
         }
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class NoComplexHeaderParamValidator implements ConjureContextualValidator<EndpointDefinition> {
+    private static final class NoComplexHeaderParamValidator implements EndpointAnalysis.Check {
 
         @Override
-        public void validate(EndpointDefinition definition, DealiasingTypeVisitor dealiasingTypeVisitor) {
-            definition.getArgs().stream()
-                    .filter(entry -> entry.getParamType().accept(ParameterTypeVisitor.IS_HEADER))
-                    .forEach(headerArgDefinition -> {
-                        boolean isValid = recursivelyValidate(headerArgDefinition.getType(), dealiasingTypeVisitor);
-                        Preconditions.checkState(
-                                isValid,
-                                "Header parameters must be enums, primitives, aliases or optional primitive:"
-                                        + " \"%s\" is not allowed on endpoint %s",
-                                headerArgDefinition.getArgName(),
-                                describe(definition));
-                    });
+        public void check(EndpointAnalysis endpoint) {
+            endpoint.args(EndpointAnalysis.Kind.HEADER).forEach(arg -> {
+                boolean isValid = isValid(arg.dealiased(), endpoint.dealiasingVisitor());
+                Preconditions.checkState(
+                        isValid,
+                        "Header parameters must be enums, primitives, aliases or optional primitive:"
+                                + " \"%s\" is not allowed on endpoint %s",
+                        arg.definition().getArgName(),
+                        endpoint.describe());
+            });
         }
 
-        private static Boolean recursivelyValidate(Type type, DealiasingTypeVisitor visitor) {
-            return visitor.dealias(type)
-                    .fold(typeDefinition -> typeDefinition.accept(TypeDefinitionVisitor.IS_ENUM), subType -> {
-                        boolean definedPrimitive = subType.accept(TypeVisitor.IS_PRIMITIVE);
+        private static Boolean isValid(Either<TypeDefinition, Type> dealiased, DealiasingTypeVisitor visitor) {
+            return dealiased.fold(typeDefinition -> typeDefinition.accept(TypeDefinitionVisitor.IS_ENUM), subType -> {
+                boolean definedPrimitive = subType.accept(TypeVisitor.IS_PRIMITIVE);
 
-                        boolean optionalPrimitive = subType.accept(TypeVisitor.IS_OPTIONAL)
-                                && recursivelyValidate(
-                                        subType.accept(TypeVisitor.OPTIONAL).getItemType(), visitor);
+                boolean optionalPrimitive = subType.accept(TypeVisitor.IS_OPTIONAL)
+                        && isValid(visitor.dealias(subType.accept(TypeVisitor.OPTIONAL).getItemType()), visitor);
 
-                        return definedPrimitive || optionalPrimitive;
-                    });
+                return definedPrimitive || optionalPrimitive;
+            });
         }
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class NoComplexQueryParamValidator implements ConjureContextualValidator<EndpointDefinition> {
+    private static final class NoComplexQueryParamValidator implements EndpointAnalysis.Check {
         @Override
-        public void validate(EndpointDefinition definition, DealiasingTypeVisitor dealiasingTypeVisitor) {
-            definition.getArgs().stream()
-                    .filter(entry -> entry.getParamType().accept(ParameterTypeVisitor.IS_QUERY))
-                    .forEach(argDefinition -> {
-                        boolean isValid = recursivelyValidate(argDefinition.getType(), dealiasingTypeVisitor);
-                        Preconditions.checkState(
-                                isValid,
-                                "Query parameters must be enums, primitives, aliases, list, sets "
-                                        + "or optional of primitive: \"%s\" is not allowed on endpoint %s",
-                                argDefinition.getArgName(),
-                                describe(definition));
-                    });
+        public void check(EndpointAnalysis endpoint) {
+            endpoint.args(EndpointAnalysis.Kind.QUERY).forEach(arg -> {
+                boolean isValid = isValid(arg.dealiased(), endpoint.dealiasingVisitor());
+                Preconditions.checkState(
+                        isValid,
+                        "Query parameters must be enums, primitives, aliases, list, sets "
+                                + "or optional of primitive: \"%s\" is not allowed on endpoint %s",
+                        arg.definition().getArgName(),
+                        endpoint.describe());
+            });
         }
 
         private static Boolean recursivelyValidate(Type type, DealiasingTypeVisitor visitor) {
-            return visitor.dealias(type)
-                    .fold(
-                            typeDefinition -> typeDefinition.accept(TypeDefinitionVisitor.IS_ENUM),
-                            subType -> subType.accept(new Type.Visitor<Boolean>() {
-                                @Override
-                                public Boolean visitPrimitive(PrimitiveType value) {
-                                    return value.get() != PrimitiveType.Value.ANY;
-                                }
-
-                                @Override
-                                public Boolean visitOptional(OptionalType value) {
-                                    return recursivelyValidate(value.getItemType(), visitor);
-                                }
-
-                                @Override
-                                public Boolean visitList(ListType value) {
-                                    return recursivelyValidate(value.getItemType(), visitor);
-                                }
-
-                                @Override
-                                public Boolean visitSet(SetType value) {
-                                    return recursivelyValidate(value.getItemType(), visitor);
-                                }
-
-                                @Override
-                                public Boolean visitMap(MapType _value) {
-                                    return false;
-                                }
-
-                                // The cases below should not be handled here, since they implicitly handled by the
-                                // DealiasingTypeVisitor above
-                                @Override
-                                public Boolean visitReference(TypeName _value) {
-                                    throw new SafeRuntimeException("Unexpected type when validating query parameters");
-                                }
-
-                                @Override
-                                public Boolean visitExternal(ExternalReference _value) {
-                                    throw new SafeRuntimeException("Unexpected type when validating query parameters");
-                                }
-
-                                @Override
-                                public Boolean visitUnknown(String _unknownType) {
-                                    throw new SafeRuntimeException("Unexpected type when validating query parameters");
-                                }
-                            }));
+            return isValid(visitor.dealias(type), visitor);
+        }
+
+        private static Boolean isValid(Either<TypeDefinition, Type> dealiased, DealiasingTypeVisitor visitor) {
+            return dealiased.fold(
+                    typeDefinition -> typeDefinition.accept(TypeDefinitionVisitor.IS_ENUM),
+                    subType -> subType.accept(new Type.Visitor<Boolean>() {
+                        @Override
+                        public Boolean visitPrimitive(PrimitiveType value) {
+                            return value.get() != PrimitiveType.Value.ANY;
+                        }
+
+                        @Override
+                        public Boolean visitOptional(OptionalType value) {
+                            return recursivelyValidate(value.getItemType(), visitor);
+                        }
+
+                        @Override
+                        public Boolean visitList(ListType value) {
+                            return recursivelyValidate(value.getItemType(), visitor);
+                        }
+
+                        @Override
+                        public Boolean visitSet(SetType value) {
+                            return recursivelyValidate(value.getItemType(), visitor);
+                        }
+
+                        @Override
+                        public Boolean visitMap(MapType _value) {
+                            return false;
+                        }
+
+                        // The cases below should not be handled here, since they implicitly handled by the
+                        // DealiasingTypeVisitor above
+                        @Override
+                        public Boolean visitReference(TypeName _value) {
+                            throw new SafeRuntimeException("Unexpected type when validating query parameters");
+                        }
+
+                        @Override
+                        public Boolean visitExternal(ExternalReference _value) {
+                            throw new SafeRuntimeException("Unexpected type when validating query parameters");
+                        }
+
+                        @Override
+                        public Boolean visitUnknown(String _unknownType) {
+                            throw new SafeRuntimeException("Unexpected type when validating query parameters");
+                        }
+                    }));
         }
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class NoBearerTokenPathOrQueryParams
-            implements ConjureContextualValidator<EndpointDefinition> {
+    private static final class NoBearerTokenPathOrQueryParams implements EndpointAnalysis.Check {
         @Override
-        public void validate(EndpointDefinition definition, DealiasingTypeVisitor dealiasingTypeVisitor) {
-            definition.getArgs().stream()
-                    .filter(entry -> entry.getParamType().accept(ParameterTypeVisitor.IS_PATH)
-                            || entry.getParamType().accept(ParameterTypeVisitor.IS_QUERY))
-                    .forEach(entry -> Preconditions.checkState(
-                            validateType(entry.getType(), dealiasingTypeVisitor),
+        public void check(EndpointAnalysis endpoint) {
+            endpoint.args().stream()
+                    .filter(arg -> arg.kind() == EndpointAnalysis.Kind.PATH
+                            || arg.kind() == EndpointAnalysis.Kind.QUERY)
+                    .forEach(arg -> Preconditions.checkState(
+                            validateType(arg.definition().getType(), arg.dealiased(), endpoint.dealiasingVisitor()),
                             "Path or query parameters of type 'bearertoken' are not allowed as this "
                                     + "would introduce a security vulnerability: \"%s\" endpoint \"%s\"",
-                            entry.getArgName(),
-                            describe(definition)));
+                            arg.definition().getArgName(),
+                            endpoint.describe()));
         }
 
-        private static boolean validateType(Type input, DealiasingTypeVisitor dealiasingTypeVisitor) {
-            Optional<Type> dealiased =
-                    dealiasingTypeVisitor.dealias(input).fold(_typeDefinition -> Optional.empty(), Optional::of);
+        private static boolean validateType(
+                Type input, Either<TypeDefinition, Type> dealiasedInput, DealiasingTypeVisitor dealiasingTypeVisitor) {
+            Optional<Type> dealiased = dealiasedInput.fold(_typeDefinition -> Optional.empty(), Optional::of);
             // typeDef isn't bearertoken
             if (!dealiased.isPresent()) {
                 return true;
@@ -379,79 +370,76 @@ public enum EndpointDefinitionValidator implements ConjureContextualValidator<En
             return !type.accept(TypeVisitor.IS_PRIMITIVE)
                     || type.accept(TypeVisitor.PRIMITIVE).get() != PrimitiveType.Value.BEARERTOKEN;
         }
+
+        private static boolean validateType(Type input, DealiasingTypeVisitor dealiasingTypeVisitor) {
+            return validateType(input, dealiasingTypeVisitor.dealias(input), dealiasingTypeVisitor);
+        }
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class ParameterNameValidator implements ConjureValidator<EndpointDefinition> {
+    private static final class ParameterNameValidator implements EndpointAnalysis.Check {
         @Override
-        public void validate(EndpointDefinition definition) {
-            definition.getArgs().forEach(arg -> {
-                Matcher matcher = CaseConverter.CAMEL_CASE_PATTERN.matcher(
-                        arg.getArgName().get());
+        public void check(EndpointAnalysis endpoint) {
+            endpoint.args().forEach(arg -> {
+                Optional<CaseConverter.Case> nameCase =
+                        CaseConverter.classify(arg.definition().getArgName().get());
                 Preconditions.checkState(
-                        matcher.matches(),
+                        nameCase.equals(Optional.of(CaseConverter.Case.LOWER_CAMEL_CASE)),
                         "Parameter names in endpoint paths and service definitions "
                                 + "must match pattern %s: %s on endpoint %s",
                         CaseConverter.CAMEL_CASE_PATTERN,
-                        arg.getArgName().get(),
-                        describe(definition));
+                        arg.definition().getArgName().get(),
+                        endpoint.describe());
             });
         }
     }
 
     @com.google.errorprone.annotations.Immutable
-    private static final class ParamIdValidator implements ConjureValidator<EndpointDefinition> {
+    private static final class ParamIdValidator implements EndpointAnalysis.Check {
         @Override
         @SuppressWarnings("Slf4jLogsafeArgs")
-        public void validate(EndpointDefinition definition) {
-            definition.getArgs().forEach(arg -> {
-                ParameterType paramType = arg.getParamType();
-                if (paramType.accept(ParameterTypeVisitor.IS_BODY) || paramType.accept(ParameterTypeVisitor.IS_PATH)) {
-                    // No validation for param-id of body and path parameters, as it is never (de)serialized.
-                } else if (paramType.accept(ParameterTypeVisitor.IS_HEADER)) {
-                    ParameterId paramId =
-                            paramType.accept(ParameterTypeVisitor.HEADER).getParamId();
-                    Preconditions.checkState(
-                            HEADER_PATTERN.matcher(paramId.get()).matches(),
-                            "Header parameter id %s on endpoint %s must match pattern %s",
-                            paramId.get(),
-                            describe(definition),
-                            HEADER_PATTERN);
-
-                } else if (paramType.accept(ParameterTypeVisitor.IS_QUERY)) {
-                    ParameterId paramId =
-                            paramType.accept(ParameterTypeVisitor.QUERY).getParamId();
-                    Preconditions.checkState(
-                            CaseConverter.CAMEL_CASE_PATTERN
-                                            .matcher(paramId.get())
-                                            .matches()
-                                    || CaseConverter.KEBAB_CASE_PATTERN
-                                            .matcher(paramId.get())
-                                            .matches()
-                                    || CaseConverter.SNAKE_CASE_PATTERN
-                                            .matcher(paramId.get())
-                                            .matches(),
-                            "Query param id %s on endpoint %s must match one of the following patterns: %s",
-                            paramId.get(),
-                            describe(definition),
-                            Arrays.toString(CaseConverter.Case.values()));
-
-                    if (!CaseConverter.CAMEL_CASE_PATTERN.matcher(paramId.get()).matches()) {
-                        log.warn(
-                                "Query param ids should be camelCase. kebab-case and snake_case are supported for "
-                                        + "legacy endpoints only: {} on endpoint {}",
+        public void check(EndpointAnalysis endpoint) {
+            endpoint.args().forEach(arg -> {
+                ParameterType paramType = arg.definition().getParamType();
+                switch (arg.kind()) {
+                    case BODY:
+                    case PATH:
+                        // No validation for param-id of body and path parameters, as it is never (de)serialized.
+                        break;
+                    case HEADER:
+                        ParameterId headerParamId =
+                                paramType.accept(ParameterTypeVisitor.HEADER).getParamId();
+                        Preconditions.checkState(
+                                HEADER_PATTERN.matcher(headerParamId.get()).matches(),
+                                "Header parameter id %s on endpoint %s must match pattern %s",
+                                headerParamId.get(),
+                                endpoint.describe(),
+                                HEADER_PATTERN);
+                        break;
+                    case QUERY:
+                        ParameterId paramId =
+                                paramType.accept(ParameterTypeVisitor.QUERY).getParamId();
+                        Optional<CaseConverter.Case> paramIdCase = CaseConverter.classify(paramId.get());
+                        Preconditions.checkState(
+                                paramIdCase.isPresent(),
+                                "Query param id %s on endpoint %s must match one of the following patterns: %s",
                                 paramId.get(),
-                                describe(definition));
-                    }
-                } else {
-                    throw new IllegalStateException("Validation for paramType does not exist: " + arg.getParamType());
+                                endpoint.describe(),
+                                Arrays.toString(CaseConverter.Case.values()));
+
+                        if (paramIdCase.get() != CaseConverter.Case.LOWER_CAMEL_CASE) {
+                            log.warn(
+                                    "Query param ids should be camelCase. kebab-case and snake_case are supported for "
+                                            + "legacy endpoints only: {} on endpoint {}",
+                                    paramId.get(),
+                                    endpoint.describe());
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException(
+                                "Validation for paramType does not exist: " + arg.definition().getParamType());
                 }
             });
         }
     }
-
-    private static String describe(EndpointDefinition endpoint) {
-        return String.format(
-                "%s{http: %s %s}", endpoint.getEndpointName(), endpoint.getHttpMethod(), endpoint.getHttpPath());
-    }
 }
@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs.validator;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.conjure.spec.ArgumentName;
+import com.palantir.conjure.spec.HttpPath;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An endpoint's {@link HttpPath} parsed as a URI template. The path is parsed once per endpoint and the result is
+ * shared by the parser, which uses it to find path arguments, and by the path validators.
+ */
+public final class HttpPathTemplate {
+
+    private final List<String> segments;
+    private final List<String> variables;
+    private final Set<ArgumentName> pathArgs;
+    private final Map<String, String> variableRegexes;
+
+    private HttpPathTemplate(String normalizedTemplate, List<String> variables, Map<String, String> variableRegexes) {
+        this.segments = Splitter.on('/').splitToList(normalizedTemplate);
+        this.variables = ImmutableList.copyOf(variables);
+        this.pathArgs = this.variables.stream().map(ArgumentName::of).collect(ImmutableSet.toImmutableSet());
+        this.variableRegexes = variableRegexes;
+    }
+
+    public static HttpPathTemplate of(HttpPath httpPath) {
+        return of(httpPath.get());
+    }
+
+    /**
+     * Parses a template made of literal text and variables {@code {name}} or {@code {name:regex}}. Whitespace around a
+     * variable name is ignored, and braces in a regular expression must be balanced.
+     */
+    static HttpPathTemplate of(String template) {
+        StringBuilder normalized = new StringBuilder(template.length());
+        List<String> variables = new ArrayList<>();
+        Map<String, String> variableRegexes = new HashMap<>();
+        int pos = 0;
+        while (pos < template.length()) {
+            char ch = template.charAt(pos);
+            if (ch != '{') {
+                normalized.append(ch);
+                pos++;
+                continue;
+            }
+
+            int nameStart = skipWhitespace(template, pos + 1);
+            int nameEnd = nameStart;
+            while (nameEnd < template.length() && isNameChar(template.charAt(nameEnd), nameEnd == nameStart)) {
+                nameEnd++;
+            }
+            Preconditions.checkArgument(
+                    nameEnd > nameStart, "Invalid path parameter name at index %s in path template %s", pos, template);
+            String name = template.substring(nameStart, nameEnd);
+
+            pos = skipWhitespace(template, nameEnd);
+            Optional<String> regex = Optional.empty();
+            if (pos < template.length() && template.charAt(pos) == ':') {
+                int regexEnd = findClosingBrace(template, pos + 1);
+                regex = Optional.of(template.substring(pos + 1, regexEnd).trim());
+                pos = regexEnd;
+            }
+            Preconditions.checkArgument(
+                    pos < template.length() && template.charAt(pos) == '}',
+                    "Path parameter %s is not closed by '}' in path template %s",
+                    name,
+                    template);
+            pos++;
+
+            if (variables.contains(name)) {
+                Preconditions.checkArgument(
+                        regex.equals(Optional.ofNullable(variableRegexes.get(name))),
+                        "Path parameter %s is declared more than once with different regular expressions in path "
+                                + "template %s",
+                        name,
+                        template);
+            }
+            variables.add(name);
+            regex.ifPresent(value -> variableRegexes.put(name, value));
+            normalized.append('{').append(name).append('}');
+        }
+        return new HttpPathTemplate(normalized.toString(), variables, ImmutableMap.copyOf(variableRegexes));
+    }
+
+    private static int skipWhitespace(String template, int pos) {
+        int result = pos;
+        while (result < template.length() && Character.isWhitespace(template.charAt(result))) {
+            result++;
+        }
+        return result;
+    }
+
+    private static boolean isNameChar(char ch, boolean first) {
+        return Character.isLetterOrDigit(ch) || ch == '_' || (!first && (ch == '-' || ch == '.'));
+    }
+
+    /** Index of the '}' closing a variable whose regular expression starts at {@code pos}. */
+    private static int findClosingBrace(String template, int pos) {
+        int depth = 0;
+        for (int i = pos; i < template.length(); i++) {
+            char ch = template.charAt(i);
+            if (ch == '{') {
+                depth++;
+            } else if (ch == '}') {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            }
+        }
+        return template.length();
+    }
+
+    /** Segments of the normalized template, e.g. {@code ["", "abc", "{foo}"]} for {@code /abc/{foo:.+}}. */
+    public List<String> segments() {
+        return segments;
+    }
+
+    /** Names of the template variables in the order they appear, including any repeats. */
+    public List<String> variables() {
+        return variables;
+    }
+
+    /** Distinct template variables as argument names. */
+    public Set<ArgumentName> pathArgs() {
+        return pathArgs;
+    }
+
+    /** The regular expression given for a variable, e.g. {@code .+} for {@code {foo:.+}}, if any. */
+    public Optional<String> variableRegex(String variable) {
+        return Optional.ofNullable(variableRegexes.get(variable));
+    }
+}
@@ -17,19 +17,15 @@
 package com.palantir.conjure.defs.validator;
 
 import com.google.common.base.Preconditions;
-import com.google.common.base.Splitter;
 import com.palantir.conjure.spec.ArgumentName;
 import com.palantir.conjure.spec.HttpPath;
 import com.palantir.util.syntacticpath.Path;
 import com.palantir.util.syntacticpath.Paths;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import org.glassfish.jersey.uri.UriTemplate;
-import org.glassfish.jersey.uri.internal.UriTemplateParser;
 
 public final class HttpPathValidator {
 
@@ -45,12 +41,16 @@ public final class HttpPathValidator {
      * returns path arguments of the http path.
      */
     public static Set<ArgumentName> pathArgs(String httpPath) {
-        UriTemplate uriTemplate = new UriTemplate(httpPath);
-        return uriTemplate.getTemplateVariables().stream().map(ArgumentName::of).collect(Collectors.toSet());
+        return HttpPathTemplate.of(httpPath).pathArgs();
     }
 
     /** validates if a new instance has the correct syntax. */
     public static void validate(HttpPath httpPath) {
+        parseAndValidate(httpPath);
+    }
+
+    /** Like {@link #validate}, but also returns the parsed template so that callers need not parse the path again. */
+    public static HttpPathTemplate parseAndValidate(HttpPath httpPath) {
         Path path = Paths.get(httpPath.get());
         Preconditions.checkArgument(
                 path.isAbsolute(), "Conjure paths must be absolute, i.e., start with '/': %s", path);
@@ -71,17 +71,17 @@ public final class HttpPathValidator {
                     PARAM_REGEX_SEGMENT_PATTERN);
         }
 
+        HttpPathTemplate template = HttpPathTemplate.of(path.toString());
+
         // verify that path template variables are unique
         Set<String> templateVars = new HashSet<>();
-        new UriTemplate(path.toString()).getTemplateVariables().forEach(var -> {
+        template.variables().forEach(var -> {
             Preconditions.checkState(
                     !templateVars.contains(var), "Path parameter %s appears more than once in path %s", var, path);
             templateVars.add(var);
         });
 
-        UriTemplateParser uriTemplateParser = new UriTemplateParser(path.toString());
-        Map<String, Pattern> nameToPattern = uriTemplateParser.getNameToPattern();
-        List<String> segments = Splitter.on('/').splitToList(uriTemplateParser.getNormalizedTemplate());
+        List<String> segments = template.segments();
         for (int i = 0; i < segments.size(); i++) {
             String segment = segments.get(i);
             if (!(segment.startsWith("{") && segment.endsWith("}"))) {
@@ -90,21 +90,22 @@ public final class HttpPathValidator {
             }
 
             // variable
-            Pattern varPattern = nameToPattern.get(segment.substring(1, segment.length() - 1));
-            if (varPattern.equals(UriTemplateParser.TEMPLATE_VALUE_PATTERN)) {
+            Optional<String> varPattern = template.variableRegex(segment.substring(1, segment.length() - 1));
+            if (!varPattern.isPresent()) {
                 // no regular expression specified -- OK
                 continue;
             }
 
             // if regular expression was specified, it must be ".+" or ".*" based on invariant previously enforced
             Preconditions.checkState(
-                    i == segments.size() - 1 || !varPattern.pattern().equals(".*"),
+                    i == segments.size() - 1 || !varPattern.get().equals(".*"),
                     "Path parameter %s in path %s specifies regular expression %s, but this regular "
                             + "expression is only permitted if the path parameter is the last segment",
                     segment,
                     path,
-                    varPattern);
+                    varPattern.get());
         }
+        return template;
     }
 
     public static String withoutLeadingSlash(String httpPath) {
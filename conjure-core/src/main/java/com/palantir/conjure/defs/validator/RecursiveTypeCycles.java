@@ -0,0 +1,195 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs.validator;
+
+import com.palantir.conjure.spec.AliasDefinition;
+import com.palantir.conjure.spec.FieldDefinition;
+import com.palantir.conjure.spec.ObjectDefinition;
+import com.palantir.conjure.spec.Type;
+import com.palantir.conjure.spec.TypeDefinition;
+import com.palantir.conjure.spec.TypeName;
+import com.palantir.conjure.visitor.TypeDefinitionVisitor;
+import com.palantir.conjure.visitor.TypeVisitor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds cycles of required references between type definitions: objects whose fields, or aliases whose targets, lead
+ * back to themselves. Such a type has no finite values. References wrapped in an optional or a collection do not count,
+ * since those may be empty, and neither do union variants, since a union value only holds one of them.
+ *
+ * <p>The reference graph over all objects and aliases is built once and split into strongly connected components
+ * with Tarjan's algorithm, so the cost is linear in the number of types and fields. Both passes use explicit stacks
+ * rather than recursion, so arbitrarily long reference chains are fine.
+ */
+final class RecursiveTypeCycles {
+
+    private final List<TypeName> names = new ArrayList<>();
+    private final Map<TypeName, Integer> indices = new HashMap<>();
+    private final List<List<Integer>> successors = new ArrayList<>();
+
+    private RecursiveTypeCycles(List<TypeDefinition> types) {
+        for (TypeDefinition type : types) {
+            indexOf(type.accept(TypeDefinitionVisitor.TYPE_NAME));
+        }
+        for (TypeDefinition type : types) {
+            List<Integer> edges = successors.get(indexOf(type.accept(TypeDefinitionVisitor.TYPE_NAME)));
+            if (type.accept(TypeDefinitionVisitor.IS_OBJECT)) {
+                ObjectDefinition objectDef = type.accept(TypeDefinitionVisitor.OBJECT);
+                for (FieldDefinition field : objectDef.getFields()) {
+                    addEdge(edges, field.getType());
+                }
+            } else if (type.accept(TypeDefinitionVisitor.IS_ALIAS)) {
+                AliasDefinition aliasDef = type.accept(TypeDefinitionVisitor.ALIAS);
+                addEdge(edges, aliasDef.getAlias());
+            }
+        }
+    }
+
+    /**
+     * Returns one cycle for every group of mutually recursive types, each listed from its first type in definition
+     * order back to that type, e.g. {@code [Foo, Bar, Foo]}. Cycles are ordered by their first type.
+     */
+    static List<List<TypeName>> find(List<TypeDefinition> types) {
+        return new RecursiveTypeCycles(types).findCycles();
+    }
+
+    private int indexOf(TypeName name) {
+        Integer index = indices.get(name);
+        if (index == null) {
+            index = names.size();
+            indices.put(name, index);
+            names.add(name);
+            successors.add(new ArrayList<>());
+        }
+        return index;
+    }
+
+    private void addEdge(List<Integer> edges, Type type) {
+        if (type.accept(TypeVisitor.IS_REFERENCE)) {
+            Integer target = indices.get(type.accept(TypeVisitor.REFERENCE));
+            if (target != null) {
+                edges.add(target);
+            }
+        }
+    }
+
+    private List<List<TypeName>> findCycles() {
+        int count = names.size();
+        // Tarjan's algorithm; order 0 means not yet visited
+        int[] order = new int[count];
+        int[] lowLink = new int[count];
+        int[] nextEdge = new int[count];
+        boolean[] onStack = new boolean[count];
+        int[] component = new int[count];
+        int[] componentStack = new int[count];
+        int[] callStack = new int[count];
+        int componentStackSize = 0;
+        int depth = 0;
+        int counter = 0;
+        List<Integer> cycleStarts = new ArrayList<>();
+
+        for (int root = 0; root < count; root++) {
+            if (order[root] != 0) {
+                continue;
+            }
+            order[root] = ++counter;
+            lowLink[root] = counter;
+            componentStack[componentStackSize++] = root;
+            onStack[root] = true;
+            callStack[depth++] = root;
+
+            while (depth > 0) {
+                int node = callStack[depth - 1];
+                List<Integer> edges = successors.get(node);
+                if (nextEdge[node] < edges.size()) {
+                    int target = edges.get(nextEdge[node]++);
+                    if (order[target] == 0) {
+                        order[target] = ++counter;
+                        lowLink[target] = counter;
+                        componentStack[componentStackSize++] = target;
+                        onStack[target] = true;
+                        callStack[depth++] = target;
+                    } else if (onStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], order[target]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+                if (lowLink[node] == order[node]) {
+                    int size = 0;
+                    int first = node;
+                    int member;
+                    do {
+                        member = componentStack[--componentStackSize];
+                        onStack[member] = false;
+                        component[member] = node;
+                        first = Math.min(first, member);
+                        size++;
+                    } while (member != node);
+                    if (size > 1 || edges.contains(node)) {
+                        cycleStarts.add(first);
+                    }
+                }
+            }
+        }
+
+        Collections.sort(cycleStarts);
+        List<List<TypeName>> cycles = new ArrayList<>(cycleStarts.size());
+        for (int start : cycleStarts) {
+            cycles.add(shortestCycle(start, component));
+        }
+        return cycles;
+    }
+
+    /** Breadth-first search from {@code start} within its component for the shortest path back to it. */
+    private List<TypeName> shortestCycle(int start, int[] component) {
+        Map<Integer, Integer> predecessors = new HashMap<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int target : successors.get(node)) {
+                if (target == start) {
+                    List<TypeName> cycle = new ArrayList<>();
+                    cycle.add(names.get(start));
+                    for (int current = node; current != start; current = predecessors.get(current)) {
+                        cycle.add(names.get(current));
+                    }
+                    cycle.add(names.get(start));
+                    Collections.reverse(cycle);
+                    return cycle;
+                }
+                if (component[target] == component[start] && !predecessors.containsKey(target)) {
+                    predecessors.put(target, node);
+                    queue.add(target);
+                }
+            }
+        }
+        throw new IllegalStateException("No cycle through " + names.get(start));
+    }
+}
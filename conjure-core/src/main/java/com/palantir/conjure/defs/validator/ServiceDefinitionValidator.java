@@ -17,11 +17,10 @@
 package com.palantir.conjure.defs.validator;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.Lists;
+import com.palantir.conjure.routes.RouteTrie;
 import com.palantir.conjure.spec.ServiceDefinition;
-import java.util.Collection;
-import java.util.regex.Pattern;
+import java.util.Comparator;
 
 @com.google.errorprone.annotations.Immutable
 public enum ServiceDefinitionValidator implements ConjureValidator<ServiceDefinition> {
@@ -45,32 +44,21 @@ public enum ServiceDefinitionValidator implements ConjureValidator<ServiceDefini
         validator.validate(definition);
     }
 
-    // The ? is for reluctant matching, i.e. matching as few characters as possible.
-    private static final Pattern PATHVAR_PATTERN = Pattern.compile(Pattern.quote("{") + ".+?" + Pattern.quote("}"));
-
     @com.google.errorprone.annotations.Immutable
     private static final class UniquePathMethodsValidator implements ConjureValidator<ServiceDefinition> {
         @Override
         public void validate(ServiceDefinition definition) {
-            Multimap<String, String> pathToEndpoints = ArrayListMultimap.create();
-            definition.getEndpoints().forEach(entry -> {
-                String methodPath =
-                        entry.getHttpMethod().get() + " " + entry.getHttpPath().get();
-                // normalize all path parameter variables and regular expressions because all path args are treated
-                // as identical for comparisons (paths cannot differ only in the name/regular expression of a path
-                // variable)
-                methodPath = PATHVAR_PATTERN.matcher(methodPath).replaceAll("{arg}");
-                pathToEndpoints.put(methodPath, entry.getEndpointName().get());
-            });
-
-            pathToEndpoints.keySet().stream().sorted().forEachOrdered(key -> {
-                Collection<String> endpoints = pathToEndpoints.get(key);
-                Preconditions.checkState(
-                        endpoints.size() <= 1,
-                        "Endpoint \"%s\" is defined by multiple endpoints: %s",
-                        key,
-                        endpoints.toString());
-            });
+            // all path args are treated as identical for comparisons (paths cannot differ only in the name/regular
+            // expression of a path variable)
+            RouteTrie.of(definition).duplicates().stream()
+                    .map(RouteTrie.Conflict::routes)
+                    .min(Comparator.comparing(routes -> routes.get(0).normalizedMethodPath()))
+                    .ifPresent(routes -> {
+                        throw new IllegalStateException(String.format(
+                                "Endpoint \"%s\" is defined by multiple endpoints: %s",
+                                routes.get(0).normalizedMethodPath(),
+                                Lists.transform(routes, route -> route.endpoint().getEndpointName().get())));
+                    });
         }
     }
 
@@ -0,0 +1,241 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs.validator;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.conjure.spec.AliasDefinition;
+import com.palantir.conjure.spec.ArgumentDefinition;
+import com.palantir.conjure.spec.ConjureDefinition;
+import com.palantir.conjure.spec.EndpointDefinition;
+import com.palantir.conjure.spec.EnumDefinition;
+import com.palantir.conjure.spec.ErrorDefinition;
+import com.palantir.conjure.spec.FieldDefinition;
+import com.palantir.conjure.spec.ObjectDefinition;
+import com.palantir.conjure.spec.ServiceDefinition;
+import com.palantir.conjure.spec.Type;
+import com.palantir.conjure.spec.TypeDefinition;
+import com.palantir.conjure.spec.TypeName;
+import com.palantir.conjure.spec.UnionDefinition;
+import com.palantir.conjure.visitor.DealiasingTypeVisitor;
+import com.palantir.conjure.visitor.TypeDefinitionVisitor;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs any number of {@link Check checks} over every type a {@link ConjureDefinition} uses in a single walk: alias
+ * targets, object fields, union variants, error arguments, and endpoint arguments and return types. The definition
+ * is indexed once and every check reads the same {@link Index}.
+ *
+ * <p>Each check reports the first definition it rejects, in the same order and with the same message as if it had
+ * walked the definition on its own. When several checks fail, the failure of the earliest check in the list is thrown,
+ * so the outcome is the same as running the checks one after the other.
+ *
+ * <p>The walk can also be split into {@link Section sections} that run independently, e.g. on different threads, over
+ * the same index; {@link #firstFailure} combines their results into the failure a single walk would have thrown.
+ */
+final class TypeUseTraversal {
+
+    /** A rule about types as used by a definition, e.g. that map keys must be primitives or enums. */
+    @com.google.errorprone.annotations.Immutable
+    interface Check {
+        /** Whether {@code type}, used directly by some definition, breaks this rule. */
+        boolean isIllegal(Type type, Index index);
+
+        /** Start of the failure message, which is followed by the offending definition, e.g. {@code object Foo}. */
+        String failurePrefix();
+    }
+
+    /** Parts of a definition that are walked in this order. */
+    enum Section {
+        TYPES,
+        ERRORS,
+        SERVICES
+    }
+
+    /** Lookups shared by all checks of one traversal. Safe to share between threads once built. */
+    static final class Index {
+        private final Map<TypeName, TypeDefinition> definitions;
+        private final DealiasingTypeVisitor dealiasingVisitor;
+
+        Index(ConjureDefinition definition) {
+            this.definitions = definition.getTypes().stream()
+                    .collect(Collectors.toMap(
+                            entry -> entry.accept(TypeDefinitionVisitor.TYPE_NAME), Function.identity()));
+            this.dealiasingVisitor = new DealiasingTypeVisitor(definitions);
+        }
+
+        /** The local or imported type definition named {@code name}, or null if there is none. */
+        TypeDefinition get(TypeName name) {
+            return definitions.get(name);
+        }
+
+        DealiasingTypeVisitor dealiasingVisitor() {
+            return dealiasingVisitor;
+        }
+    }
+
+    private final List<? extends Check> checks;
+    private final Index index;
+    private final RuntimeException[] failures;
+    private int pending;
+
+    private TypeUseTraversal(Index index, List<? extends Check> checks) {
+        this.checks = checks;
+        this.index = index;
+        this.failures = new RuntimeException[checks.size()];
+        this.pending = checks.size();
+    }
+
+    static void validate(ConjureDefinition definition, List<? extends Check> checks) {
+        if (checks.isEmpty()) {
+            return;
+        }
+        TypeUseTraversal traversal = new TypeUseTraversal(new Index(definition), checks);
+        for (Section section : Section.values()) {
+            traversal.walk(definition, section);
+        }
+        firstFailure(ImmutableList.of(traversal.failures)).ifPresent(failure -> {
+            throw failure;
+        });
+    }
+
+    /**
+     * Walks one section of the definition and returns, for each check, the first failure found in that section, or
+     * null where there is none.
+     */
+    static RuntimeException[] failures(
+            ConjureDefinition definition, Index index, List<? extends Check> checks, Section section) {
+        TypeUseTraversal traversal = new TypeUseTraversal(index, checks);
+        traversal.walk(definition, section);
+        return traversal.failures;
+    }
+
+    /**
+     * The failure a single walk would throw, given the {@link #failures} of each section in {@link Section} order:
+     * the first failure of the earliest failing check.
+     */
+    static Optional<RuntimeException> firstFailure(List<RuntimeException[]> sectionFailures) {
+        int checkCount = sectionFailures.isEmpty() ? 0 : sectionFailures.get(0).length;
+        for (int i = 0; i < checkCount; i++) {
+            for (RuntimeException[] failures : sectionFailures) {
+                if (failures[i] != null) {
+                    return Optional.of(failures[i]);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void walk(ConjureDefinition definition, Section section) {
+        switch (section) {
+            case TYPES:
+                for (TypeDefinition typeDef : definition.getTypes()) {
+                    visitTypeDefinition(typeDef);
+                }
+                return;
+            case ERRORS:
+                for (ErrorDefinition errorDef : definition.getErrors()) {
+                    for (FieldDefinition arg : errorDef.getSafeArgs()) {
+                        check(arg.getType(), "one of arguments of error", errorDef.getErrorName());
+                    }
+                    for (FieldDefinition arg : errorDef.getUnsafeArgs()) {
+                        check(arg.getType(), "one of arguments of error", errorDef.getErrorName());
+                    }
+                }
+                return;
+            case SERVICES:
+                for (ServiceDefinition serviceDef : definition.getServices()) {
+                    for (EndpointDefinition endpoint : serviceDef.getEndpoints()) {
+                        for (ArgumentDefinition arg : endpoint.getArgs()) {
+                            check(arg.getType(), "one of the arguments of endpoint", endpoint.getEndpointName().get());
+                        }
+                        endpoint.getReturns()
+                                .ifPresent(returnType -> check(
+                                        returnType, "return type of endpoint", endpoint.getEndpointName().get()));
+                    }
+                }
+                return;
+        }
+        throw new IllegalArgumentException("Unknown section: " + section);
+    }
+
+    private void visitTypeDefinition(TypeDefinition typeDef) {
+        typeDef.accept(new TypeDefinition.Visitor<Void>() {
+            @Override
+            public Void visitAlias(AliasDefinition value) {
+                check(value.getAlias(), "alias", value.getTypeName());
+                return null;
+            }
+
+            @Override
+            public Void visitObject(ObjectDefinition value) {
+                for (FieldDefinition field : value.getFields()) {
+                    check(field.getType(), "object", value.getTypeName());
+                }
+                return null;
+            }
+
+            @Override
+            public Void visitUnion(UnionDefinition value) {
+                for (FieldDefinition variant : value.getUnion()) {
+                    check(variant.getType(), "union", value.getTypeName());
+                }
+                return null;
+            }
+
+            @Override
+            public Void visitEnum(EnumDefinition _value) {
+                return null;
+            }
+
+            @Override
+            public Void visitUnknown(String _unknownType) {
+                return null;
+            }
+        });
+    }
+
+    private void check(Type type, String kind, TypeName owner) {
+        check(type, kind, owner.getName());
+    }
+
+    private void check(Type type, String kind, String owner) {
+        if (pending == 0) {
+            return;
+        }
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] != null) {
+                continue;
+            }
+            Check check = checks.get(i);
+            try {
+                if (check.isIllegal(type, index)) {
+                    failures[i] = new IllegalStateException(check.failurePrefix() + " " + kind + " " + owner);
+                }
+            } catch (RuntimeException e) {
+                // a check that blows up stops at that point, as it would have when walking on its own
+                failures[i] = e;
+            }
+            if (failures[i] != null) {
+                pending--;
+            }
+        }
+    }
+}
@@ -23,6 +23,8 @@ import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.annotations.VisibleForTesting;
+import com.palantir.conjure.defs.Concurrency;
+import com.palantir.conjure.parser.types.ConjureTypeCache;
 import com.palantir.conjure.parser.types.TypesDefinition;
 import com.palantir.conjure.parser.types.names.Namespace;
 import com.palantir.conjure.parser.types.reference.ConjureImports;
@@ -30,10 +32,13 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public final class ConjureParser {
@@ -56,45 +61,88 @@ public final class ConjureParser {
 
     /** Deserializes a {@link ConjureSourceFile} from its YAML representation in the given file. */
     public static ConjureSourceFile parse(File file) {
-        RecursiveParser parser = new RecursiveParser();
-        return parser.parse(file);
+        return parse(file, new HashMap<>(), new ConjureTypeCache());
     }
 
     public static AnnotatedConjureSourceFile parseAnnotated(File file) {
+        return parseAnnotated(file, new HashMap<>(), new ConjureTypeCache());
+    }
+
+    /** Equivalent to {@code parseAnnotated(files, parallelism, new ConjureTypeCache())}. */
+    public static List<AnnotatedConjureSourceFile> parseAnnotated(Collection<File> files, int parallelism) {
+        return parseAnnotated(files, parallelism, new ConjureTypeCache());
+    }
+
+    /**
+     * Deserializes an {@link AnnotatedConjureSourceFile} for each of the given files, using up to {@code parallelism}
+     * threads. The result has the same iteration order as {@code files}, and if several files fail to parse, the
+     * exception thrown is the one raised by the first such file in that order.
+     *
+     * <p>Imported files are read and deserialized at most once per call (modulo files that are first requested
+     * concurrently by several threads), and every importer of a given file shares the same {@link ConjureSourceFile}
+     * instance. Type expressions are parsed once per call through {@code typeCache}, whose {@link
+     * ConjureTypeCache#stats() statistics} then describe this compilation.
+     */
+    public static List<AnnotatedConjureSourceFile> parseAnnotated(
+            Collection<File> files, int parallelism, ConjureTypeCache typeCache) {
+        Map<String, ConjureSourceFile> sharedCache = new ConcurrentHashMap<>();
+        return Concurrency.mapInOrder(
+                files, parallelism, "conjure-parser", file -> parseAnnotated(file, sharedCache, typeCache));
+    }
+
+    private static ConjureSourceFile parse(
+            File file, Map<String, ConjureSourceFile> sharedCache, ConjureTypeCache typeCache) {
+        RecursiveParser parser = new RecursiveParser(sharedCache);
+        return typeCache.scope(() -> parser.parse(file));
+    }
+
+    private static AnnotatedConjureSourceFile parseAnnotated(
+            File file, Map<String, ConjureSourceFile> sharedCache, ConjureTypeCache typeCache) {
         return AnnotatedConjureSourceFile.builder()
-                .conjureSourceFile(ConjureParser.parse(file))
+                .conjureSourceFile(parse(file, sharedCache, typeCache))
                 .sourceFile(file)
                 .build();
     }
 
+    /**
+     * Parses a single import tree. The cache of fully parsed files may be shared between several parsers (and
+     * threads), whereas the depth-first path used to detect cycles is local to this traversal.
+     */
     private static final class RecursiveParser {
         private final Map<String, ConjureSourceFile> cache;
         private final Set<String> currentDepthFirstPath;
 
-        private RecursiveParser() {
-            this.cache = new HashMap<>();
+        private RecursiveParser(Map<String, ConjureSourceFile> cache) {
+            this.cache = cache;
             this.currentDepthFirstPath = new LinkedHashSet<>(); // maintain order so we can print the cycle
         }
 
         ConjureSourceFile parse(File file) {
-            // HashMap.computeIfAbsent does not work with recursion; the size of the map gets corrupted,
-            // and if the map gets resized during the recursion, some of the new nodes can be put in wrong
-            // buckets. Therefore don't use computeIfAbsent in parse/parseInternal
+            // Neither HashMap.computeIfAbsent nor ConcurrentHashMap.computeIfAbsent work with recursion: the former
+            // may corrupt the map, the latter throws (or deadlocks when several threads wait on each other's
+            // imports). Therefore don't use computeIfAbsent in parse/parseInternal, and only ever publish fully
+            // parsed files to the cache.
             // See https://bugs.java.com/view_bug.do?bug_id=JDK-8071667
-            ConjureSourceFile result = cache.get(file.getAbsolutePath());
+            String key = canonicalPath(file);
+            ConjureSourceFile result = cache.get(key);
             if (result != null) {
                 return result;
             }
 
-            if (!currentDepthFirstPath.add(file.getAbsolutePath())) {
+            if (!currentDepthFirstPath.add(key)) {
                 String cycle = currentDepthFirstPath.stream().reduce("", (left, right) -> left + " -> " + right)
-                        + " -> " + file.getAbsolutePath();
+                        + " -> " + key;
                 throw new CyclicImportException(cycle);
             }
 
-            result = parseInternal(file);
-            cache.put(file.getAbsolutePath(), result);
-            return result;
+            try {
+                result = parseInternal(file);
+            } finally {
+                currentDepthFirstPath.remove(key);
+            }
+            // another traversal may have finished the same file in the meantime; keep the first published instance
+            ConjureSourceFile existing = cache.putIfAbsent(key, result);
+            return existing != null ? existing : result;
         }
 
         private ConjureSourceFile parseInternal(File file) {
@@ -130,13 +178,23 @@ public final class ConjureParser {
                 Map<Namespace, ConjureImports> declaredImports, Path baseDir) {
             return declaredImports.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> {
                 String importedFile = entry.getValue().file();
-                ConjureSourceFile importedConjure =
-                        parse(baseDir.resolve(importedFile).toFile());
-                return ConjureImports.withResolvedImports(importedFile, importedConjure);
+                File resolvedFile = baseDir.resolve(importedFile).toFile();
+                ConjureSourceFile importedConjure = parse(resolvedFile);
+                return ConjureImports.withResolvedImports(importedFile, canonicalPath(resolvedFile), importedConjure);
             }));
         }
     }
 
+    private static String canonicalPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            // canonicalization touches the file system and may fail, e.g. for unreadable parent directories; the
+            // absolute path is still a correct (if less effective) cache key
+            return file.getAbsolutePath();
+        }
+    }
+
     @VisibleForTesting
     static ObjectMapper createConjureParserObjectMapper() {
         ObjectMapper mapper = new ObjectMapper(new YAMLFactory())
@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.parser.types;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.palantir.parsec.ParseException;
+import java.util.function.Supplier;
+
+/**
+ * Interns the results of {@link ConjureType#fromString} within one compilation, so that an expression such as
+ * {@code optional<string>} is parsed once no matter how many fields, arguments or aliases spell it out. Expressions
+ * that fail to parse are not cached.
+ *
+ * <p>Jackson deserializers have no per-compilation context, so a cache backs {@link ConjureType#fromString} on the
+ * threads that run {@link #scope}. Outside of a scope every expression is parsed afresh.
+ */
+public final class ConjureTypeCache {
+
+    private static final ThreadLocal<ConjureTypeCache> CURRENT = new ThreadLocal<>();
+
+    private final Cache<String, ConjureType> cache = CacheBuilder.newBuilder().recordStats().build();
+
+    /** Returns {@code parse.get()}, with this cache backing {@link ConjureType#fromString} on the current thread. */
+    public <T> T scope(Supplier<T> parse) {
+        ConjureTypeCache previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return parse.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /** Hits and misses of the expressions parsed with this cache so far. */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    static ConjureType parse(String value) throws ParseException {
+        ConjureTypeCache current = CURRENT.get();
+        return current == null ? TypeParserImplementation.SELECTED.parse(value) : current.parseCached(value);
+    }
+
+    private ConjureType parseCached(String value) throws ParseException {
+        ConjureType cached = cache.getIfPresent(value);
+        if (cached != null) {
+            return cached;
+        }
+        ConjureType parsed = TypeParserImplementation.SELECTED.parse(value);
+        // racing threads may both parse the expression; all of them return the instance that was stored first
+        ConjureType existing = cache.asMap().putIfAbsent(value, parsed);
+        return existing != null ? existing : parsed;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.parser.types;
+
+import com.palantir.conjure.parser.types.builtin.AnyType;
+import com.palantir.conjure.parser.types.builtin.BinaryType;
+import com.palantir.conjure.parser.types.builtin.DateTimeType;
+import com.palantir.conjure.parser.types.collect.ListType;
+import com.palantir.conjure.parser.types.collect.MapType;
+import com.palantir.conjure.parser.types.collect.OptionalType;
+import com.palantir.conjure.parser.types.collect.SetType;
+import com.palantir.conjure.parser.types.names.Namespace;
+import com.palantir.conjure.parser.types.names.TypeName;
+import com.palantir.conjure.parser.types.reference.ForeignReferenceType;
+import com.palantir.conjure.parser.types.reference.LocalReferenceType;
+import com.palantir.parsec.ParseException;
+import com.palantir.parsec.ParserState;
+import com.palantir.parsec.StringParserState;
+
+/**
+ * A single-pass parser for the {@link ConjureType} grammar. The production is chosen from the first character and the
+ * keyword it starts, so unlike {@link TypeParser} nothing is ever re-read, and the only allocations are the resulting
+ * types and the names they contain.
+ *
+ * <p>Accepts exactly the inputs that {@link TypeParser#parse(String)} accepts and returns equal results, including its
+ * quirks: keywords are matched as prefixes (so {@code anything} is {@code any} followed by garbage) and a single
+ * trailing character after the type is tolerated. Inputs it rejects fail with the same {@link ParseException}
+ * message, with one deliberate exception: where {@link TypeParser} fails with a {@link NullPointerException} because a
+ * type or name is missing, as in {@code list<>}, {@code map<string>} or {@code .Foo}, this parser throws a
+ * {@link ParseException} saying what is missing.
+ */
+final class PredictiveTypeParser {
+
+    private final String input;
+    private int position;
+
+    private PredictiveTypeParser(String input) {
+        this.input = input;
+    }
+
+    static ConjureType parse(String input) throws ParseException {
+        PredictiveTypeParser parser = new PredictiveTypeParser(input);
+        ConjureType type = parser.type();
+        // TypeParser checks for the end of input only after stepping over the next character
+        if (type == null || parser.position < input.length() - 1) {
+            throw parser.failure(input, parser.position + 1);
+        }
+        return type;
+    }
+
+    /** Parses the type at the current position, or returns null without consuming anything if none starts here. */
+    private ConjureType type() throws ParseException {
+        if (position >= input.length()) {
+            return null;
+        }
+        switch (input.charAt(position)) {
+            case 'm':
+                if (consume("map")) {
+                    return mapType();
+                }
+                break;
+            case 'l':
+                if (consume("list")) {
+                    return ListType.of(itemType());
+                }
+                break;
+            case 's':
+                if (consume("set")) {
+                    return SetType.of(itemType());
+                }
+                break;
+            case 'o':
+                if (consume("optional")) {
+                    return OptionalType.of(itemType());
+                }
+                break;
+            case 'a':
+                if (consume("any")) {
+                    return AnyType.of();
+                }
+                break;
+            case 'b':
+                if (consume("binary")) {
+                    return BinaryType.of();
+                }
+                break;
+            case 'd':
+                if (consume("datetime")) {
+                    return DateTimeType.of();
+                }
+                break;
+            default:
+                break;
+        }
+        return referenceType();
+    }
+
+    private MapType mapType() throws ParseException {
+        expect('<', "Expected startToken");
+        skipWhitespace();
+        ConjureType keyType = type();
+        skipWhitespace();
+        if (keyType == null || !consume(",")) {
+            // TypeParser gives up on the key-value pair and expects the closing token instead
+            expect('>', "Expected endToken");
+            throw failure(keyType == null ? "Expected type" : "Expected ','", position);
+        }
+        int afterSeparator = position;
+        skipWhitespace();
+        ConjureType valueType = type();
+        if (valueType == null) {
+            throw failure("Found key '" + keyType + "' without associated value.", afterSeparator);
+        }
+        expect('>', "Expected endToken");
+        return MapType.of(keyType, valueType);
+    }
+
+    private ConjureType itemType() throws ParseException {
+        expect('<', "Expected startToken");
+        skipWhitespace();
+        ConjureType itemType = type();
+        expect('>', "Expected endToken");
+        if (itemType == null) {
+            throw failure("Expected type", position);
+        }
+        return itemType;
+    }
+
+    private ConjureType referenceType() throws ParseException {
+        int start = position;
+        int namespaceEnd = start;
+        while (namespaceEnd < input.length() && isNamespaceCharacter(input.charAt(namespaceEnd))) {
+            namespaceEnd++;
+        }
+
+        if (namespaceEnd < input.length() && input.charAt(namespaceEnd) == '.') {
+            if (namespaceEnd == start) {
+                throw failure("Expected namespace", namespaceEnd + 1);
+            }
+            int nameStart = namespaceEnd + 1;
+            position = identifierEnd(nameStart);
+            if (position == nameStart) {
+                throw failure("Expected type name", position);
+            }
+            return ForeignReferenceType.of(
+                    Namespace.of(input.substring(start, namespaceEnd)),
+                    TypeName.of(input.substring(nameStart, position)));
+        }
+
+        int end = identifierEnd(start);
+        if (end == start) {
+            return null;
+        }
+        position = end;
+        return LocalReferenceType.of(TypeName.of(input.substring(start, end)));
+    }
+
+    private boolean consume(String keyword) {
+        if (input.startsWith(keyword, position)) {
+            position += keyword.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char token, String message) throws ParseException {
+        skipWhitespace();
+        if (position < input.length() && input.charAt(position) == token) {
+            position++;
+        } else {
+            throw failure(message, position + 1);
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+            position++;
+        }
+    }
+
+    private int identifierEnd(int start) {
+        int end = start;
+        while (end < input.length() && Character.isJavaIdentifierPart(input.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isNamespaceCharacter(char character) {
+        return ('a' <= character && character <= 'z') || ('A' <= character && character <= 'Z');
+    }
+
+    /** Reports a failure at {@code at}, in the same format as the parsec parsers. */
+    private ParseException failure(String message, int at) {
+        ParserState state = new StringParserState(input);
+        for (int i = 0; i < Math.min(at, input.length()); i++) {
+            state.next();
+        }
+        return new ParseException(message, state);
+    }
+}
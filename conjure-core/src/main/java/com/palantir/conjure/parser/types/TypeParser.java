@@ -40,31 +40,35 @@ import com.palantir.parsec.parsers.RawStringParser;
 public enum TypeParser implements Parser<ConjureType> {
     INSTANCE;
 
+    // Built once: the graph is stateless and recursive through INSTANCE, so every nested type reuses the same parsers.
+    private static final Parser<ConjureType> TYPE_PARSER = Parsers.or(
+            MapTypeParser.INSTANCE,
+            ListTypeParser.INSTANCE,
+            SetTypeParser.INSTANCE,
+            OptionalTypeParser.INSTANCE,
+            TypeFromString.of("any", AnyType.of(), AnyType.class),
+            TypeFromString.of("binary", BinaryType.of(), BinaryType.class),
+            TypeFromString.of("datetime", DateTimeType.of(), DateTimeType.class),
+            ForeignReferenceTypeParser.INSTANCE,
+            TypeReferenceParser.INSTANCE);
+
+    private static final Parser<ConjureType> WHOLE_INPUT_PARSER = Parsers.eof(TYPE_PARSER);
+
+    /** Parses {@code <type>} following a collection keyword, allowing whitespace around each token. */
+    private static final Parser<ConjureType> ITEM_TYPE_PARSER = Parsers.liberalBetween("<", INSTANCE, ">");
+
     public ConjureType parse(String input) throws ParseException {
         ParserState inputParserState = new StringParserState(input);
-        ConjureType resultType = Parsers.eof(typeParser()).parse(inputParserState);
+        ConjureType resultType = WHOLE_INPUT_PARSER.parse(inputParserState);
         if (resultType == null) {
             throw new ParseException(input, inputParserState);
         }
-        return parse(new StringParserState(input));
+        return resultType;
     }
 
     @Override
     public ConjureType parse(ParserState input) throws ParseException {
-        return typeParser().parse(input);
-    }
-
-    private Parser<ConjureType> typeParser() {
-        return Parsers.or(
-                MapTypeParser.INSTANCE,
-                ListTypeParser.INSTANCE,
-                SetTypeParser.INSTANCE,
-                OptionalTypeParser.INSTANCE,
-                TypeFromString.of("any", AnyType.of(), AnyType.class),
-                TypeFromString.of("binary", BinaryType.of(), BinaryType.class),
-                TypeFromString.of("datetime", DateTimeType.of(), DateTimeType.class),
-                ForeignReferenceTypeParser.INSTANCE,
-                TypeReferenceParser.INSTANCE);
+        return TYPE_PARSER.parse(input);
     }
 
     private enum TypeReferenceParser implements Parser<LocalReferenceType> {
@@ -112,10 +116,12 @@ public enum TypeParser implements Parser<ConjureType> {
                     }
                 });
 
+        private static final Parser<ExpectationResult> SEPARATOR_PARSER = Parsers.expect(".");
+
         @Override
         public ForeignReferenceType parse(ParserState input) throws ParseException {
             String namespace = NAMESPACE_PARSER.parse(input);
-            if (Parsers.nullOrUnexpected(Parsers.expect(".").parse(input))) {
+            if (Parsers.nullOrUnexpected(SEPARATOR_PARSER.parse(input))) {
                 return null;
             }
             String ref = TypeReferenceParser.REF_PARSER.parse(input);
@@ -126,15 +132,16 @@ public enum TypeParser implements Parser<ConjureType> {
     private enum ListTypeParser implements Parser<ListType> {
         INSTANCE;
 
+        private static final Parser<ExpectationResult> KEYWORD_PARSER = Parsers.expect("list");
+
         @Override
         public ListType parse(ParserState input) throws ParseException {
-            ExpectationResult result = Parsers.expect("list").parse(input);
+            ExpectationResult result = KEYWORD_PARSER.parse(input);
             if (Parsers.nullOrUnexpected(result)) {
                 return null;
             }
 
-            ConjureType itemType =
-                    Parsers.liberalBetween("<", TypeParser.INSTANCE, ">").parse(input);
+            ConjureType itemType = ITEM_TYPE_PARSER.parse(input);
             return ListType.of(itemType);
         }
     }
@@ -142,15 +149,16 @@ public enum TypeParser implements Parser<ConjureType> {
     private enum SetTypeParser implements Parser<SetType> {
         INSTANCE;
 
+        private static final Parser<ExpectationResult> KEYWORD_PARSER = Parsers.expect("set");
+
         @Override
         public SetType parse(ParserState input) throws ParseException {
-            ExpectationResult result = Parsers.expect("set").parse(input);
+            ExpectationResult result = KEYWORD_PARSER.parse(input);
             if (Parsers.nullOrUnexpected(result)) {
                 return null;
             }
 
-            ConjureType itemType =
-                    Parsers.liberalBetween("<", TypeParser.INSTANCE, ">").parse(input);
+            ConjureType itemType = ITEM_TYPE_PARSER.parse(input);
             return SetType.of(itemType);
         }
     }
@@ -158,15 +166,16 @@ public enum TypeParser implements Parser<ConjureType> {
     private enum OptionalTypeParser implements Parser<OptionalType> {
         INSTANCE;
 
+        private static final Parser<ExpectationResult> KEYWORD_PARSER = Parsers.expect("optional");
+
         @Override
         public OptionalType parse(ParserState input) throws ParseException {
-            ExpectationResult result = Parsers.expect("optional").parse(input);
+            ExpectationResult result = KEYWORD_PARSER.parse(input);
             if (Parsers.nullOrUnexpected(result)) {
                 return null;
             }
 
-            ConjureType itemType =
-                    Parsers.liberalBetween("<", TypeParser.INSTANCE, ">").parse(input);
+            ConjureType itemType = ITEM_TYPE_PARSER.parse(input);
             return OptionalType.of(itemType);
         }
     }
@@ -174,38 +183,40 @@ public enum TypeParser implements Parser<ConjureType> {
     private enum MapTypeParser implements Parser<MapType> {
         INSTANCE;
 
+        private static final Parser<ExpectationResult> KEYWORD_PARSER = Parsers.expect("map");
+
+        private static final Parser<KeyValue<ConjureType, ConjureType>> KEY_VALUE_PARSER = Parsers.liberalBetween(
+                "<",
+                new KeyValueParser<>(
+                        Parsers.whitespace(TypeParser.INSTANCE),
+                        Parsers.whitespace(Parsers.expect(",")),
+                        Parsers.whitespace(TypeParser.INSTANCE)),
+                ">");
+
         @Override
         public MapType parse(ParserState input) throws ParseException {
-            ExpectationResult result = Parsers.expect("map").parse(input);
+            ExpectationResult result = KEYWORD_PARSER.parse(input);
             if (Parsers.nullOrUnexpected(result)) {
                 return null;
             }
 
-            Parser<KeyValue<ConjureType, ConjureType>> kv = Parsers.liberalBetween(
-                    "<",
-                    new KeyValueParser<>(
-                            Parsers.whitespace(TypeParser.INSTANCE),
-                            Parsers.whitespace(Parsers.expect(",")),
-                            Parsers.whitespace(TypeParser.INSTANCE)),
-                    ">");
-
-            KeyValue<ConjureType, ConjureType> types = kv.parse(input);
+            KeyValue<ConjureType, ConjureType> types = KEY_VALUE_PARSER.parse(input);
             return MapType.of(types.getKey(), types.getValue());
         }
     }
 
     private static final class TypeFromString<T> implements Parser<T> {
-        private final String type;
+        private final Parser<ExpectationResult> type;
         private final T instance;
 
         TypeFromString(String type, T instance) {
-            this.type = type;
+            this.type = Parsers.expect(type);
             this.instance = instance;
         }
 
         @Override
         public T parse(ParserState input) throws ParseException {
-            ExpectationResult result = Parsers.expect(type).parse(input);
+            ExpectationResult result = type.parse(input);
             if (Parsers.nullOrUnexpected(result)) {
                 return null;
             }
@@ -0,0 +1,47 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.parser.types;
+
+import com.palantir.parsec.ParseException;
+import java.util.Locale;
+
+/**
+ * The parsers that can back {@link ConjureType#fromString} on a {@link ConjureTypeCache} miss. {@link #PREDICTIVE} is
+ * used unless the {@value #PROPERTY} system property selects another one by name, e.g.
+ * {@code -Dconjure.typeParser=parsec}.
+ */
+enum TypeParserImplementation {
+    PREDICTIVE {
+        @Override
+        ConjureType parse(String value) throws ParseException {
+            return PredictiveTypeParser.parse(value);
+        }
+    },
+    PARSEC {
+        @Override
+        ConjureType parse(String value) throws ParseException {
+            return TypeParser.INSTANCE.parse(value);
+        }
+    };
+
+    static final String PROPERTY = "conjure.typeParser";
+
+    static final TypeParserImplementation SELECTED =
+            valueOf(System.getProperty(PROPERTY, PREDICTIVE.name()).toUpperCase(Locale.ROOT));
+
+    abstract ConjureType parse(String value) throws ParseException;
+}
@@ -22,6 +22,7 @@ import com.google.common.base.Preconditions;
 import com.palantir.conjure.CaseConverter;
 import com.palantir.conjure.defs.ConjureImmutablesStyle;
 import com.palantir.conjure.parser.types.complex.ObjectTypeDefinition;
+import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
 import org.immutables.value.Value;
 import org.slf4j.Logger;
@@ -47,17 +48,16 @@ public abstract class FieldName {
         CaseConverter.Case kebabCase = CaseConverter.Case.KEBAB_CASE;
         CaseConverter.Case snakeCase = CaseConverter.Case.SNAKE_CASE;
 
+        Optional<CaseConverter.Case> nameCase = CaseConverter.classify(name());
         Preconditions.checkArgument(
-                lowerCamelCase.getPattern().matcher(name()).matches()
-                        || kebabCase.getPattern().matcher(name()).matches()
-                        || snakeCase.getPattern().matcher(name()).matches(),
+                nameCase.isPresent(),
                 "FieldName \"%s\" must follow one of the following patterns: %s %s %s",
                 name(),
                 lowerCamelCase,
                 kebabCase,
                 snakeCase);
 
-        if (!lowerCamelCase.getPattern().matcher(name()).matches()) {
+        if (nameCase.get() != lowerCamelCase) {
             log.warn(
                     "{} should be specified in lowerCamelCase. kebab-case and snake_case are supported for "
                             + "legacy endpoints only: {}",
@@ -69,12 +69,9 @@ public abstract class FieldName {
     /** Returns the case of this field name. */
     @Value.Lazy
     protected CaseConverter.Case nameCase() {
-        for (CaseConverter.Case nameCase : CaseConverter.Case.values()) {
-            if (nameCase.getPattern().matcher(name()).matches()) {
-                return nameCase;
-            }
-        }
-        throw new IllegalStateException("Could not find case for FieldName, this is a bug: " + name());
+        return CaseConverter.classify(name())
+                .orElseThrow(() ->
+                        new IllegalStateException("Could not find case for FieldName, this is a bug: " + name()));
     }
 
     @JsonCreator
@@ -84,7 +81,7 @@ public abstract class FieldName {
 
     /** Converts this {@link FieldName} to a {@link FieldName} with the given case. */
     public final FieldName toCase(CaseConverter.Case targetCase) {
-        return FieldName.of(nameCase().convertTo(this.name(), targetCase));
+        return FieldName.of(CaseConverter.toCase(this.name(), targetCase));
     }
 
     /**
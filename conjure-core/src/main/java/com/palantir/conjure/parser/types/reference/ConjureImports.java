@@ -19,8 +19,17 @@ package com.palantir.conjure.parser.types.reference;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.palantir.conjure.defs.ConjureImmutablesStyle;
 import com.palantir.conjure.parser.ConjureSourceFile;
+import java.util.Optional;
 import org.immutables.value.Value;
 
+/**
+ * An import of another source file. Parsing resolves each import to the imported {@link ConjureSourceFile}, and all
+ * files parsed together share a single instance per physical file: the parsed sources form a graph of shared nodes
+ * rather than a tree with a copy of each import under every importer. Imports are therefore identified by the
+ * {@link #resolvedPath() path} of the file they resolve to, and comparing, hashing or printing an import does not
+ * descend into the imported file. In particular, two parses of the same files compare equal even if the content of an
+ * imported file changed in between.
+ */
 @Value.Immutable
 @ConjureImmutablesStyle
 public interface ConjureImports {
@@ -31,6 +40,11 @@ public interface ConjureImports {
      */
     String file();
 
+    /** The canonical path of the imported file, once the import is resolved. */
+    Optional<String> resolvedPath();
+
+    /** The imported file, shared with every other import of the same file that was parsed together with this one. */
+    @Value.Auxiliary
     ConjureSourceFile conjure();
 
     @JsonCreator
@@ -42,10 +56,25 @@ public interface ConjureImports {
                 .build();
     }
 
+    /**
+     * An import resolved without recording the imported file's path, which therefore compares equal to any other such
+     * import of the same {@code file}.
+     *
+     * @deprecated use {@link #withResolvedImports(String, String, ConjureSourceFile)}
+     */
+    @Deprecated
     static ConjureImports withResolvedImports(String file, ConjureSourceFile conjureDefinition) {
         return ImmutableConjureImports.builder()
                 .file(file)
                 .conjure(conjureDefinition)
                 .build();
     }
+
+    static ConjureImports withResolvedImports(String file, String resolvedPath, ConjureSourceFile conjureDefinition) {
+        return ImmutableConjureImports.builder()
+                .file(file)
+                .resolvedPath(resolvedPath)
+                .conjure(conjureDefinition)
+                .build();
+    }
 }
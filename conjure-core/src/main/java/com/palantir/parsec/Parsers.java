@@ -20,6 +20,8 @@ import com.palantir.parsec.parsers.BetweenParser;
 import com.palantir.parsec.parsers.ExpectantParser;
 import com.palantir.parsec.parsers.ExpectationResult;
 import com.palantir.parsec.parsers.RawStringParser;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class Parsers {
 
@@ -115,15 +117,17 @@ public final class Parsers {
      */
     @SafeVarargs
     public static <T> Parser<T> or(final Parser<? extends T> firstOption, final Parser<? extends T>... otherOptions) {
+        List<Parser<? extends T>> options = new ArrayList<>(otherOptions.length + 1);
+        options.add(gingerly(firstOption));
+        for (Parser<? extends T> nextOption : otherOptions) {
+            options.add(gingerly(nextOption));
+        }
         return new Parser<T>() {
             @Override
             public T parse(ParserState input) throws ParseException {
-                T result = gingerly(firstOption).parse(input);
-                if (result != null) {
-                    return result;
-                }
-                for (Parser<? extends T> nextOption : otherOptions) {
-                    result = gingerly(nextOption).parse(input);
+                T result = null;
+                for (Parser<? extends T> option : options) {
+                    result = option.parse(input);
                     if (result != null) {
                         return result;
                     }
@@ -29,14 +29,19 @@ public final class ExpectantParser implements Parser<ExpectationResult> {
 
     @Override
     public ExpectationResult parse(ParserState input) {
-        StringBuilder sb = new StringBuilder();
+        // consumes up to expectation.length() characters whether or not they match, comparing as it goes
+        boolean matches = true;
+        int consumed = 0;
         int curr = input.curr();
-        while (curr != -1 && sb.length() < expectation.length()) {
-            sb.append((char) curr);
+        while (curr != -1 && consumed < expectation.length()) {
+            if (curr != expectation.charAt(consumed)) {
+                matches = false;
+            }
+            consumed++;
             curr = input.next();
         }
 
-        if (sb.toString().equals(expectation)) {
+        if (matches && consumed == expectation.length()) {
             return ExpectationResult.CORRECT;
         } else {
             return ExpectationResult.INCORRECT;
@@ -0,0 +1,170 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.conjure.spec.ConjureDefinition;
+import com.palantir.conjure.spec.Type;
+import com.palantir.conjure.visitor.TypeDefinitionVisitor;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FragmentCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File cacheDirectory;
+    private File common;
+    private List<File> inputs;
+
+    @Before
+    public void before() throws IOException {
+        cacheDirectory = temporaryFolder.newFolder("cache");
+        common = temporaryFolder.newFile("common.yml");
+        writeCommon("string");
+        File service = temporaryFolder.newFile("service.yml");
+        write(
+                service,
+                "types:",
+                "  conjure-imports:",
+                "    common: common.yml",
+                "  definitions:",
+                "    default-package: com.palantir.test.service",
+                "    objects:",
+                "      Request:",
+                "        fields:",
+                "          id: common.Id",
+                "services:",
+                "  TestService:",
+                "    name: Test Service",
+                "    package: com.palantir.test.service",
+                "    base-path: /test",
+                "    endpoints:",
+                "      get:",
+                "        http: GET /{id}",
+                "        args:",
+                "          id: common.Id");
+        inputs = ImmutableList.of(common, service);
+    }
+
+    @Test
+    public void incrementalCompilationMatchesFullCompilation() {
+        ConjureDefinition expected = Conjure.parse(inputs);
+        assertThat(parseIncrementally()).isEqualTo(expected);
+        // second run is served entirely from the cache
+        assertThat(parseIncrementally()).isEqualTo(expected);
+    }
+
+    @Test
+    public void recompilesDependentsOfChangedImports() throws IOException {
+        parseIncrementally();
+        writeCommon("integer");
+
+        ConjureDefinition definition = parseIncrementally();
+
+        assertThat(definition).isEqualTo(Conjure.parse(inputs));
+        assertThat(definition.getTypes())
+                .filteredOn(type -> type.accept(TypeDefinitionVisitor.IS_ALIAS))
+                .extracting(type -> type.accept(TypeDefinitionVisitor.ALIAS).getAlias())
+                .containsExactly(Type.primitive(com.palantir.conjure.spec.PrimitiveType.INTEGER));
+    }
+
+    @Test
+    public void keepsFragmentsOfOtherCompilationsSharingTheCache() throws IOException {
+        parseIncrementally();
+        File fragments = new File(cacheDirectory, "fragments");
+        List<String> fragmentNames = ImmutableList.copyOf(fragments.list());
+
+        File other = temporaryFolder.newFile("other.yml");
+        write(
+                other,
+                "types:",
+                "  definitions:",
+                "    default-package: com.palantir.test.other",
+                "    objects:",
+                "      Other:",
+                "        alias: string");
+        parseIncrementally(ImmutableList.of(other));
+
+        assertThat(fragments.list()).hasSize(fragmentNames.size() + 1).contains(fragmentNames.toArray(new String[0]));
+    }
+
+    @Test
+    public void removesFragmentsOfChangedFiles() throws IOException {
+        parseIncrementally();
+        File fragments = new File(cacheDirectory, "fragments");
+        List<String> fragmentNames = ImmutableList.copyOf(fragments.list());
+
+        writeCommon("integer");
+        parseIncrementally();
+
+        // both files have new keys, as the service imports common
+        assertThat(fragments.list()).hasSize(fragmentNames.size()).doesNotContainAnyElementsOf(fragmentNames);
+    }
+
+    @Test
+    public void codeHashChangesWithAnyClassFile() throws IOException {
+        File classes = temporaryFolder.newFolder("classes");
+        File classFile = new File(classes, "com/palantir/Foo.class");
+        Files.createDirectories(classFile.getParentFile().toPath());
+        write(classFile, "version 1");
+        String original = FragmentCache.hashOf(classes.toPath());
+
+        assertThat(FragmentCache.hashOf(classes.toPath())).isEqualTo(original);
+        write(classFile, "version 2");
+        assertThat(FragmentCache.hashOf(classes.toPath())).isNotEqualTo(original);
+        write(classFile, "version 1");
+        Files.move(classFile.toPath(), new File(classes, "com/palantir/Bar.class").toPath());
+        assertThat(FragmentCache.hashOf(classes.toPath())).isNotEqualTo(original);
+    }
+
+    private ConjureDefinition parseIncrementally() {
+        return parseIncrementally(inputs);
+    }
+
+    private ConjureDefinition parseIncrementally(List<File> files) {
+        return Conjure.parse(
+                files,
+                ConjureOptions.builder()
+                        .incrementalCacheDirectory(cacheDirectory)
+                        .build());
+    }
+
+    private void writeCommon(String idType) throws IOException {
+        write(
+                common,
+                "types:",
+                "  definitions:",
+                "    default-package: com.palantir.test.common",
+                "    objects:",
+                "      Id:",
+                "        alias: " + idType);
+    }
+
+    private static void write(File file, String... lines) throws IOException {
+        Files.write(file.toPath(), ImmutableList.copyOf(lines), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.conjure.parser.ConjureParser;
+import com.palantir.conjure.spec.ConjureDefinition;
+import com.palantir.conjure.spec.ListType;
+import com.palantir.conjure.spec.OptionalType;
+import com.palantir.conjure.spec.PrimitiveType;
+import com.palantir.conjure.spec.Type;
+import com.palantir.conjure.spec.TypeName;
+import java.io.File;
+import org.junit.Test;
+
+public class TypeInternerTest {
+
+    @Test
+    public void testEqualTypesShareOneInstance() {
+        Type first = TypeInterner.list(TypeInterner.optional(TypeInterner.primitive(PrimitiveType.STRING)));
+        Type second = TypeInterner.list(TypeInterner.optional(TypeInterner.primitive(PrimitiveType.STRING)));
+        assertThat(first).isSameAs(second);
+        assertThat(first)
+                .isEqualTo(Type.list(
+                        ListType.of(Type.optional(OptionalType.of(Type.primitive(PrimitiveType.STRING))))));
+        assertThat(TypeInterner.reference(TypeName.of("Foo", "com.palantir.foo")))
+                .isSameAs(TypeInterner.reference(TypeInterner.typeName("Foo", "com.palantir.foo")));
+    }
+
+    @Test
+    public void testSeparateCompilationsShareTypes() {
+        File file = new File("src/test/resources/example-conjure-imports.yml");
+        ConjureDefinition first =
+                ConjureParserUtils.parseConjureDef(ImmutableList.of(ConjureParser.parseAnnotated(file)));
+        ConjureDefinition second =
+                ConjureParserUtils.parseConjureDef(ImmutableList.of(ConjureParser.parseAnnotated(file)));
+        assertThat(second).isEqualTo(first);
+        assertThat(second.getServices().get(0).getEndpoints().get(0).getArgs().get(0).getType())
+                .isSameAs(first.getServices().get(0).getEndpoints().get(0).getArgs().get(0).getType());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.defs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.palantir.conjure.defs.ConjureTypeParserVisitor.ReferenceTypeResolver;
+import com.palantir.conjure.parser.ConjureParser;
+import com.palantir.conjure.parser.ConjureSourceFile;
+import com.palantir.conjure.parser.types.names.Namespace;
+import com.palantir.conjure.parser.types.names.TypeName;
+import com.palantir.conjure.parser.types.reference.ForeignReferenceType;
+import com.palantir.conjure.parser.types.reference.LocalReferenceType;
+import com.palantir.conjure.spec.ExternalReference;
+import com.palantir.conjure.spec.PrimitiveType;
+import com.palantir.conjure.spec.Type;
+import java.io.File;
+import org.junit.Test;
+
+public class TypeSymbolTableTest {
+
+    private static final ConjureSourceFile IMPORTER =
+            ConjureParser.parse(new File("src/test/resources/example-conjure-imports.yml"));
+    private static final ConjureSourceFile IMPORTED = IMPORTER.types()
+            .conjureImports()
+            .get(Namespace.of("imports"))
+            .conjure();
+
+    @Test
+    public void testResolvesLocalAndForeignReferences() {
+        TypeSymbolTable symbolTable = new TypeSymbolTable();
+        ReferenceTypeResolver importer = symbolTable.resolver(IMPORTER.types());
+        ReferenceTypeResolver imported = symbolTable.resolver(IMPORTED.types());
+
+        Type simpleObject = Type.reference(com.palantir.conjure.spec.TypeName.of("SimpleObject", "test.api"));
+        assertThat(importer.resolve(ForeignReferenceType.of(Namespace.of("imports"), TypeName.of("SimpleObject"))))
+                .isEqualTo(simpleObject);
+        assertThat(imported.resolve(LocalReferenceType.of(TypeName.of("SimpleObject"))))
+                .isEqualTo(simpleObject);
+        assertThat(imported.resolve(LocalReferenceType.of(TypeName.of("ResourceIdentifier"))))
+                .isEqualTo(Type.external(ExternalReference.builder()
+                        .externalReference(com.palantir.conjure.spec.TypeName.of(
+                                "ResourceIdentifier", "com.palantir.ri"))
+                        .fallback(Type.primitive(PrimitiveType.STRING))
+                        .build()));
+    }
+
+    @Test
+    public void testSharesOneResolverPerFile() {
+        TypeSymbolTable symbolTable = new TypeSymbolTable();
+        assertThat(symbolTable.resolver(IMPORTED.types())).isSameAs(symbolTable.resolver(IMPORTED.types()));
+        assertThat(symbolTable.resolver(IMPORTED.types()).typeVisitor())
+                .isSameAs(symbolTable.resolver(IMPORTED.types()).typeVisitor());
+    }
+
+    @Test
+    public void testUnknownReferences() {
+        ReferenceTypeResolver resolver = new TypeSymbolTable().resolver(IMPORTER.types());
+        assertThatThrownBy(() -> resolver.resolve(LocalReferenceType.of(TypeName.of("Missing"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Unknown LocalReferenceType");
+        assertThatThrownBy(() -> resolver.resolve(ForeignReferenceType.of(Namespace.of("other"), TypeName.of("Foo"))))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessageStartingWith("Import not found for namespace");
+    }
+}
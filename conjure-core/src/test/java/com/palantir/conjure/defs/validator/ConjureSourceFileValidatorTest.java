@@ -19,6 +19,7 @@ package com.palantir.conjure.defs.validator;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
 import com.palantir.conjure.spec.AliasDefinition;
 import com.palantir.conjure.spec.ConjureDefinition;
@@ -40,6 +41,7 @@ import com.palantir.conjure.spec.SetType;
 import com.palantir.conjure.spec.Type;
 import com.palantir.conjure.spec.TypeDefinition;
 import com.palantir.conjure.spec.TypeName;
+import com.palantir.conjure.spec.UnionDefinition;
 import org.junit.Test;
 
 public class ConjureSourceFileValidatorTest {
@@ -122,6 +124,65 @@ public class ConjureSourceFileValidatorTest {
                 .hasMessageStartingWith("Illegal recursive data type: ");
     }
 
+    @Test
+    public void testNoRecursiveCycleThroughLaterField() {
+        ConjureDefinition conjureDef = ConjureDefinition.builder()
+                .version(1)
+                .types(object("Foo", field(FieldName.of("string"), "string"), field(FieldName.of("bar"), "Bar")))
+                .types(alias("Bar", "Foo"))
+                .build();
+
+        assertThatThrownBy(() -> ConjureDefinitionValidator.NO_RECURSIVE_TYPES.validate(conjureDef))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Illegal recursive data type: Foo -> Bar -> Foo");
+    }
+
+    @Test
+    public void testAllRecursiveCyclesReported() {
+        ConjureDefinition conjureDef = ConjureDefinition.builder()
+                .version(1)
+                .types(object("Baz", field(FieldName.of("baz"), "Baz")))
+                .types(object("Foo", field(FieldName.of("bar"), "Bar")))
+                .types(object("Bar", field(FieldName.of("foo"), "Foo")))
+                .types(object("Ok", field(FieldName.of("foo"), "Foo")))
+                .build();
+
+        assertThatThrownBy(() -> ConjureDefinitionValidator.NO_RECURSIVE_TYPES.validate(conjureDef))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Illegal recursive data type: Baz -> Baz\n"
+                        + "Illegal recursive data type: Foo -> Bar -> Foo");
+    }
+
+    @Test
+    public void testRecursiveTypeOkInUnion() {
+        ConjureDefinition conjureDef = ConjureDefinition.builder()
+                .version(1)
+                .types(TypeDefinition.union(UnionDefinition.builder()
+                        .typeName(FOO)
+                        .union(field(FieldName.of("bar"), "Bar"))
+                        .build()))
+                .types(object("Bar", field(FieldName.of("foo"), "Foo")))
+                .build();
+
+        assertThatCode(() -> ConjureDefinitionValidator.NO_RECURSIVE_TYPES.validate(conjureDef))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    public void testNoRecursiveTypesScalesToLargeGraphs() {
+        int count = 100_000;
+        ConjureDefinition.Builder builder = ConjureDefinition.builder().version(1);
+        for (int i = 0; i < count; i++) {
+            builder.types(object("T" + i, field(FieldName.of("next"), "T" + ((i + 1) % count))));
+        }
+        ConjureDefinition conjureDef = builder.build();
+
+        assertThatThrownBy(() -> ConjureDefinitionValidator.NO_RECURSIVE_TYPES.validate(conjureDef))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Illegal recursive data type: T0 -> T1 -> T2 -> ")
+                .hasMessageEndingWith(" -> T99999 -> T0");
+    }
+
     @Test
     public void testNoIllegalMapKeys_returns() {
         ConjureDefinition conjureDef = ConjureDefinition.builder()
@@ -234,6 +295,88 @@ public class ConjureSourceFileValidatorTest {
                 .hasMessageStartingWith("Illegal map key found in object Foo");
     }
 
+    @Test
+    public void testValidateAllReportsFailuresInValidatorOrder() {
+        ConjureDefinition conjureDef = ConjureDefinition.builder()
+                .version(1)
+                .types(TypeDefinition.object(ObjectDefinition.builder()
+                        .typeName(FOO)
+                        .fields(FieldDefinition.builder()
+                                .fieldName(FieldName.of("bad"))
+                                .type(Type.map(MapType.of(
+                                        Type.list(ListType.of(Type.primitive(PrimitiveType.STRING))),
+                                        Type.primitive(PrimitiveType.STRING))))
+                                .docs(DOCS)
+                                .build())
+                        .build()))
+                .types(TypeDefinition.alias(AliasDefinition.builder()
+                        .typeName(BAR)
+                        .alias(Type.optional(OptionalType.of(Type.optional(
+                                OptionalType.of(Type.primitive(PrimitiveType.STRING))))))
+                        .build()))
+                .build();
+
+        // the map key is visited first, but nested optionals are checked by an earlier validator
+        assertThatThrownBy(() -> ConjureDefinitionValidator.validateAll(conjureDef))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Illegal nested optionals found in alias Bar");
+        assertThatThrownBy(() -> ConjureDefinitionValidator.validateAll(conjureDef, 4))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Illegal nested optionals found in alias Bar");
+        assertThatThrownBy(() -> ConjureDefinitionValidator.ILLEGAL_MAP_KEYS.validate(conjureDef))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Illegal map key found in object Foo");
+    }
+
+    @Test
+    public void testParallelValidateAllReportsEarliestValidatorFailure() {
+        ConjureDefinition conjureDef = ConjureDefinition.builder()
+                .version(2)
+                .types(TypeDefinition.alias(AliasDefinition.builder()
+                        .typeName(BAR)
+                        .alias(Type.optional(OptionalType.of(Type.optional(
+                                OptionalType.of(Type.primitive(PrimitiveType.STRING))))))
+                        .build()))
+                .build();
+
+        for (int parallelism : new int[] {1, 4}) {
+            assertThatThrownBy(() -> ConjureDefinitionValidator.validateAll(conjureDef, parallelism))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageStartingWith("Definition version must be 1");
+        }
+    }
+
+    @Test
+    public void testParallelValidateAllReportsDuplicateTypeNames() {
+        ConjureDefinition conjureDef = ConjureDefinition.builder()
+                .version(1)
+                .types(object("Foo"))
+                .types(alias("Foo", "Bar"))
+                .types(object("Bar"))
+                .build();
+
+        for (int parallelism : new int[] {1, 4}) {
+            assertThatThrownBy(() -> ConjureDefinitionValidator.validateAll(conjureDef, parallelism))
+                    .isInstanceOf(VerifyException.class)
+                    .hasMessageStartingWith("Type, error, and service names must be unique across locally defined "
+                            + "and imported types/errors");
+        }
+    }
+
+    private TypeDefinition object(String name, FieldDefinition... fields) {
+        return TypeDefinition.object(ObjectDefinition.builder()
+                .typeName(TypeName.of(name, PACKAGE))
+                .addAllFields(ImmutableList.copyOf(fields))
+                .build());
+    }
+
+    private TypeDefinition alias(String name, String type) {
+        return TypeDefinition.alias(AliasDefinition.builder()
+                .typeName(TypeName.of(name, PACKAGE))
+                .alias(Type.reference(TypeName.of(type, PACKAGE)))
+                .build());
+    }
+
     private FieldDefinition field(FieldName name, String type) {
         return FieldDefinition.builder()
                 .fieldName(name)
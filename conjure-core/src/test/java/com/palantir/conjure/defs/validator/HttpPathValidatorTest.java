@@ -16,8 +16,10 @@
 
 package com.palantir.conjure.defs.validator;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.palantir.conjure.spec.ArgumentName;
 import com.palantir.conjure.spec.HttpPath;
 import java.util.regex.Pattern;
 import org.junit.Test;
@@ -80,6 +82,24 @@ public final class HttpPathValidatorTest {
         validate("/abc/v1.2/{foo}");
     }
 
+    @Test
+    public void testParseAndValidateReturnsParsedTemplate() {
+        HttpPathTemplate template = HttpPathValidator.parseAndValidate(HttpPath.of("/abc/{foo}/bar/{baz:.+}"));
+        assertThat(template.pathArgs()).containsExactlyInAnyOrder(ArgumentName.of("foo"), ArgumentName.of("baz"));
+        assertThat(template.segments()).containsExactly("", "abc", "{foo}", "bar", "{baz}");
+        assertThat(template.variableRegex("baz")).hasValue(".+");
+        assertThat(template.variableRegex("foo")).isEmpty();
+    }
+
+    @Test
+    public void testPathArgsOfUnvalidatedTemplates() {
+        assertThat(HttpPathValidator.pathArgs("/a/{ foo }/{bar:[0-9]{2}}/{foo}"))
+                .containsExactlyInAnyOrder(ArgumentName.of("foo"), ArgumentName.of("bar"));
+        assertThatThrownBy(() -> HttpPathValidator.pathArgs("/a/{foo"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Path parameter foo is not closed by '}' in path template /a/{foo");
+    }
+
     private static void validate(String path) {
         HttpPathValidator.validate(HttpPath.of(path));
     }
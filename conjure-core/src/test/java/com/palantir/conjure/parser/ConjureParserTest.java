@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.ImmutableList;
+import com.palantir.conjure.parser.types.ConjureTypeCache;
 import com.palantir.conjure.parser.types.TypeDefinitionVisitor;
 import com.palantir.conjure.parser.types.complex.EnumTypeDefinition;
 import com.palantir.conjure.parser.types.complex.EnumValueDefinition;
@@ -36,6 +37,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.List;
 import java.util.StringJoiner;
+import java.util.stream.Collectors;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -201,6 +203,108 @@ public class ConjureParserTest {
         assertThat(result.types().conjureImports()).isNotEmpty();
     }
 
+    @Test
+    public void testParallelParsePreservesInputOrder() throws IOException {
+        List<String> names = ImmutableList.of("one", "two", "three", "four", "five", "six", "seven", "eight");
+        generateFiles(ImmutableList.of("common"), ImmutableList.of());
+        generateFiles(names, ImmutableList.of("common"));
+        List<File> files = names.stream()
+                .map(name -> temporaryFolder.getRoot().toPath().resolve(name + ".yml").toFile())
+                .collect(Collectors.toList());
+
+        List<AnnotatedConjureSourceFile> sequential = ConjureParser.parseAnnotated(files, 1);
+        List<AnnotatedConjureSourceFile> parallel = ConjureParser.parseAnnotated(files, 4);
+
+        assertThat(parallel).extracting(AnnotatedConjureSourceFile::sourceFile).containsExactlyElementsOf(files);
+        assertThat(parallel).isEqualTo(sequential);
+    }
+
+    @Test
+    public void testImportsAreSharedAcrossTopLevelFiles() throws IOException {
+        generateFiles(ImmutableList.of("common"), ImmutableList.of());
+        generateFiles(ImmutableList.of("first", "second"), ImmutableList.of("common"));
+        List<File> files = ImmutableList.of(
+                temporaryFolder.getRoot().toPath().resolve("first.yml").toFile(),
+                temporaryFolder.getRoot().toPath().resolve("second.yml").toFile());
+
+        for (int parallelism : new int[] {1, 2}) {
+            List<AnnotatedConjureSourceFile> parsed = ConjureParser.parseAnnotated(files, parallelism);
+            ConjureSourceFile firstCommon = parsed.get(0)
+                    .conjureSourceFile()
+                    .types()
+                    .conjureImports()
+                    .get(Namespace.of("common"))
+                    .conjure();
+            ConjureSourceFile secondCommon = parsed.get(1)
+                    .conjureSourceFile()
+                    .types()
+                    .conjureImports()
+                    .get(Namespace.of("common"))
+                    .conjure();
+            assertThat(firstCommon).isSameAs(secondCommon);
+        }
+    }
+
+    @Test
+    public void testSharedImportsAreComparedByPath() throws IOException {
+        // every file imports both files of the level below, so the imports span 2^depth paths but only 2 * depth files
+        List<String> previous = ImmutableList.of();
+        for (int level = 0; level < 24; level++) {
+            List<String> current = ImmutableList.of("left" + level, "right" + level);
+            generateFiles(current, previous);
+            previous = current;
+        }
+        generateFiles(ImmutableList.of("top"), previous);
+        File top = temporaryFolder.getRoot().toPath().resolve("top.yml").toFile();
+
+        ConjureSourceFile first = ConjureParser.parse(top);
+        ConjureSourceFile second = ConjureParser.parse(top);
+        assertThat(first).isNotSameAs(second).isEqualTo(second).hasSameHashCodeAs(second);
+        assertThat(first.types()
+                        .conjureImports()
+                        .get(Namespace.of("left23"))
+                        .conjure()
+                        .types()
+                        .conjureImports()
+                        .get(Namespace.of("left22"))
+                        .conjure())
+                .isSameAs(first.types()
+                        .conjureImports()
+                        .get(Namespace.of("right23"))
+                        .conjure()
+                        .types()
+                        .conjureImports()
+                        .get(Namespace.of("left22"))
+                        .conjure());
+    }
+
+    @Test
+    public void testTypeExpressionsAreParsedOncePerCompilation() throws IOException {
+        List<String> names = ImmutableList.of("one", "two", "three");
+        generateFiles(ImmutableList.of("common"), ImmutableList.of());
+        generateFiles(names, ImmutableList.of("common"));
+        List<File> files = names.stream()
+                .map(name -> temporaryFolder.getRoot().toPath().resolve(name + ".yml").toFile())
+                .collect(Collectors.toList());
+
+        ConjureTypeCache typeCache = new ConjureTypeCache();
+        ConjureParser.parseAnnotated(files, 1, typeCache);
+
+        // every file declares one alias of string
+        assertThat(typeCache.stats().missCount()).isEqualTo(1);
+        assertThat(typeCache.stats().hitCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testParallelParseRethrowsParserExceptions() {
+        List<File> files = ImmutableList.of(
+                new File("src/test/resources/example-conjure-imports.yml"),
+                new File("src/test/resources/example-recursive-imports.yml"),
+                new File("src/test/resources/does-not-exist.yml"));
+        assertThatThrownBy(() -> ConjureParser.parseAnnotated(files, 3))
+                .isInstanceOf(ConjureParser.CyclicImportException.class);
+    }
+
     private void generateFiles(List<String> names, List<String> importedNamespaces) throws IOException {
         for (String name : names) {
             File file = temporaryFolder.newFile(name + ".yml");
@@ -0,0 +1,71 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.parser.types;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.cache.CacheStats;
+import com.palantir.conjure.parser.types.collect.OptionalType;
+import com.palantir.conjure.parser.types.names.TypeName;
+import com.palantir.conjure.parser.types.reference.LocalReferenceType;
+import com.palantir.parsec.ParseException;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+public final class ConjureTypeCacheTest {
+
+    @Test
+    public void repeatedExpressionsReturnTheSameInstance() {
+        ConjureTypeCache cache = new ConjureTypeCache();
+        ConjureType first = cache.scope(parse("optional<Foo>"));
+        ConjureType second = cache.scope(parse("optional<Foo>"));
+
+        assertThat(first).isEqualTo(OptionalType.of(LocalReferenceType.of(TypeName.of("Foo"))));
+        assertThat(second).isSameAs(first);
+        assertThat(cache.stats()).isEqualTo(new CacheStats(1, 1, 0, 0, 0, 0));
+    }
+
+    @Test
+    public void compilationsDoNotShareExpressions() {
+        ConjureTypeCache cache = new ConjureTypeCache();
+        ConjureType first = cache.scope(parse("optional<Foo>"));
+
+        assertThat(new ConjureTypeCache().scope(parse("optional<Foo>"))).isNotSameAs(first);
+        assertThat(parse("optional<Foo>").get()).isNotSameAs(first);
+        assertThat(cache.stats().requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void failuresAreReportedEveryTime() {
+        ConjureTypeCache cache = new ConjureTypeCache();
+        assertThatThrownBy(() -> cache.scope(parse("list<"))).hasCauseInstanceOf(ParseException.class);
+        assertThatThrownBy(() -> cache.scope(parse("list<"))).hasCauseInstanceOf(ParseException.class);
+
+        assertThat(cache.stats().missCount()).isEqualTo(2);
+    }
+
+    private static Supplier<ConjureType> parse(String value) {
+        return () -> {
+            try {
+                return ConjureType.fromString(value);
+            } catch (ParseException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.parser.types;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.parsec.ParseException;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/** Differential tests checking that {@link PredictiveTypeParser} behaves exactly like {@link TypeParser}. */
+public final class PredictiveTypeParserTest {
+
+    private static final ImmutableList<String> CORPUS = ImmutableList.of(
+            "string",
+            "integer",
+            "double",
+            "boolean",
+            "safelong",
+            "rid",
+            "bearertoken",
+            "uuid",
+            "any",
+            "binary",
+            "datetime",
+            "Foo",
+            "FooBar2",
+            "foo.Bar",
+            "com.Bar",
+            "list<string>",
+            "set<Foo>",
+            "optional<foo.Bar>",
+            "map<string, any>",
+            "map<string,list<optional<Foo>>>",
+            "map < string , set < datetime > >",
+            "list< map<rid, binary> >",
+            "optional<optional<string>>",
+            "string ",
+            "list<string>]",
+            "",
+            " string",
+            "string[]",
+            "[]",
+            "String",
+            "foo",
+            "anything",
+            "binaryFoo",
+            "mapping",
+            "lists",
+            "list<>",
+            "list<string",
+            "list string",
+            "map<string>",
+            "map<string string>",
+            "map<string,>",
+            "map<,string>",
+            ".Foo",
+            "foo.",
+            "foo_bar.Baz",
+            "foo.bar",
+            "foo.Bar.Baz",
+            "list<foo.Bar>x",
+            "optional<list<set<map<string, Foo>>>>>",
+            "Foo$",
+            "Foo_Bar");
+
+    private static final String MUTATIONS = "<>,. aZ_9";
+
+    @Test
+    public void matchesParsecOnCorpus() {
+        CORPUS.forEach(PredictiveTypeParserTest::assertSameBehaviour);
+    }
+
+    @Test
+    public void matchesParsecOnGeneratedTypes() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            String type = randomType(random, 0);
+            assertSameBehaviour(type);
+            assertSameBehaviour(mutate(type, random));
+        }
+    }
+
+    @Test
+    public void missingTypesAreParseExceptions() {
+        assertMissingType("list<>", "Expected type");
+        assertMissingType("map<string>", "Expected ','");
+        assertMissingType("map<>", "Expected type");
+        assertMissingType(".Foo", "Expected namespace");
+        assertMissingType("foo.", "Expected type name");
+    }
+
+    @Test
+    public void fromStringUsesPredictiveParserByDefault() {
+        assertThat(TypeParserImplementation.SELECTED).isEqualTo(TypeParserImplementation.PREDICTIVE);
+    }
+
+    private static void assertSameBehaviour(String input) {
+        ConjureType expected;
+        try {
+            expected = TypeParser.INSTANCE.parse(input);
+        } catch (IllegalArgumentException e) {
+            assertThatThrownBy(() -> PredictiveTypeParser.parse(input))
+                    .as("'%s'", input)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage(e.getMessage());
+            return;
+        } catch (ParseException e) {
+            assertThatThrownBy(() -> PredictiveTypeParser.parse(input))
+                    .as("'%s'", input)
+                    .isInstanceOf(ParseException.class)
+                    .hasMessage(e.getMessage());
+            return;
+        } catch (NullPointerException e) {
+            // the one intended difference, see missingTypesAreParseExceptions
+            assertThatThrownBy(() -> PredictiveTypeParser.parse(input))
+                    .as("'%s'", input)
+                    .isInstanceOf(ParseException.class);
+            return;
+        }
+        try {
+            assertThat(PredictiveTypeParser.parse(input)).as("'%s'", input).isEqualTo(expected);
+        } catch (ParseException e) {
+            throw new AssertionError("Failed to parse '" + input + "'", e);
+        }
+    }
+
+    private static void assertMissingType(String input, String message) {
+        assertThatThrownBy(() -> TypeParser.INSTANCE.parse(input))
+                .as("'%s'", input)
+                .isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> PredictiveTypeParser.parse(input))
+                .as("'%s'", input)
+                .isInstanceOf(ParseException.class)
+                .hasMessageStartingWith(message + "\n");
+    }
+
+    private static String randomType(Random random, int depth) {
+        List<String> leaves = ImmutableList.of("string", "any", "binary", "datetime", "Foo", "ns.Bar", "rid");
+        int choice = depth > 3 ? 4 : random.nextInt(5);
+        switch (choice) {
+            case 0:
+                return "list" + between(random, randomType(random, depth + 1));
+            case 1:
+                return "set" + between(random, randomType(random, depth + 1));
+            case 2:
+                return "optional" + between(random, randomType(random, depth + 1));
+            case 3:
+                return "map"
+                        + between(
+                                random,
+                                randomType(random, depth + 1) + space(random) + "," + space(random)
+                                        + randomType(random, depth + 1));
+            default:
+                return leaves.get(random.nextInt(leaves.size()));
+        }
+    }
+
+    private static String between(Random random, String inner) {
+        return space(random) + "<" + space(random) + inner + space(random) + ">";
+    }
+
+    private static String space(Random random) {
+        return random.nextInt(4) == 0 ? " " : "";
+    }
+
+    private static String mutate(String type, Random random) {
+        StringBuilder mutated = new StringBuilder(type);
+        int index = random.nextInt(type.length() + 1);
+        if (random.nextBoolean() && index < type.length()) {
+            mutated.deleteCharAt(index);
+        } else {
+            mutated.insert(index, MUTATIONS.charAt(random.nextInt(MUTATIONS.length())));
+        }
+        return mutated.toString();
+    }
+}
@@ -17,6 +17,7 @@
 package com.palantir.conjure.parser.types;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.palantir.conjure.parser.types.builtin.AnyType;
@@ -153,6 +154,23 @@ public final class TypeParserTests {
         TypeParser.INSTANCE.parse("[]");
     }
 
+    @Test
+    public void testParser_invalidSuffixTypeMessage() {
+        assertThatThrownBy(() -> TypeParser.INSTANCE.parse("string[]"))
+                .isInstanceOf(ParseException.class)
+                .hasMessage("string[]\nat or before character 8\non or before line 0\n]");
+    }
+
+    @Test
+    public void testParser_nestedTypesReuseParsers() throws ParseException {
+        for (int i = 0; i < 2; i++) {
+            assertThat(TypeParser.INSTANCE.parse("map< string , list< optional<Foo> > >"))
+                    .isEqualTo(MapType.of(
+                            PrimitiveType.STRING,
+                            ListType.of(OptionalType.of(LocalReferenceType.of(TypeName.of("Foo"))))));
+        }
+    }
+
     @Test
     public void testDeserializer_stringType() throws IOException {
         assertThat(new ObjectMapper().readValue("\"string\"", ConjureType.class))
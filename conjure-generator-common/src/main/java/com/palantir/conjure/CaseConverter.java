@@ -17,6 +17,9 @@
 package com.palantir.conjure;
 
 import com.google.common.base.CaseFormat;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 public final class CaseConverter {
@@ -26,6 +29,8 @@ public final class CaseConverter {
     public static final Pattern SNAKE_CASE_PATTERN =
             Pattern.compile("^[a-z]((_[a-z]){1,2}[a-z0-9]|[a-z0-9])*(_[a-z])?$");
 
+    private static final long MAXIMUM_CACHED_CONVERSIONS = 100_000;
+
     private CaseConverter() {}
 
     public enum Case {
@@ -73,6 +78,10 @@ public final class CaseConverter {
         };
 
         private final Pattern pattern;
+        // held here rather than in CaseConverter, whose initialization must not depend on Case: the constants of
+        // Case use the patterns of CaseConverter, so whichever class is initialized first would see the other empty
+        private final Cache<String, String> conversionsTo =
+                CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_CONVERSIONS).build();
 
         Case(Pattern pattern) {
             this.pattern = pattern;
@@ -90,16 +99,90 @@ public final class CaseConverter {
         public abstract String convertTo(String name, Case targetCase);
     }
 
+    /**
+     * Converts {@code name}, which must be in one of the supported cases, to {@code targetCase}. Conversions are
+     * cached, so converting the same name again is a lookup.
+     */
     public static String toCase(String name, Case targetCase) {
-        return nameCase(name).convertTo(name, targetCase);
+        String converted = targetCase.conversionsTo.getIfPresent(name);
+        if (converted == null) {
+            converted = nameCase(name).convertTo(name, targetCase);
+            targetCase.conversionsTo.put(name, converted);
+        }
+        return converted;
     }
 
-    private static Case nameCase(String name) {
-        for (Case nameCase : Case.values()) {
-            if (nameCase.pattern.matcher(name).matches()) {
-                return nameCase;
+    /**
+     * Returns the case {@code name} is written in, or empty if it matches none of the {@link Case#getPattern()
+     * patterns}. Names valid in several cases, such as {@code foo}, are {@link Case#LOWER_CAMEL_CASE lower camel case}.
+     *
+     * <p>This is a single scan equivalent to matching the patterns in order: after a leading lower case letter, a run of
+     * upper case letters may be at most two long, or one at the end of the name; and a run of separators each followed
+     * by a lower case letter, such as {@code -a-b}, may be at most two long, or one at the end of the name.
+     */
+    public static Optional<Case> classify(String name) {
+        int length = name.length();
+        if (length == 0 || !isLower(name.charAt(0))) {
+            return Optional.empty();
+        }
+        char separator = 0;
+        boolean seenUpper = false;
+        // consecutive upper case letters, or consecutive separator-letter pairs
+        int run = 0;
+        int index = 1;
+        while (index < length) {
+            char ch = name.charAt(index);
+            if (isLower(ch) || isDigit(ch)) {
+                if (run > 2) {
+                    return Optional.empty();
+                }
+                run = 0;
+                index++;
+            } else if (isUpper(ch)) {
+                if (separator != 0) {
+                    return Optional.empty();
+                }
+                seenUpper = true;
+                run++;
+                index++;
+            } else if (ch == '-' || ch == '_') {
+                if (seenUpper || (separator != 0 && separator != ch)) {
+                    return Optional.empty();
+                }
+                if (index + 1 == length || !isLower(name.charAt(index + 1))) {
+                    return Optional.empty();
+                }
+                separator = ch;
+                run++;
+                index += 2;
+            } else {
+                return Optional.empty();
             }
         }
-        throw new IllegalArgumentException("Unexpected case for: " + name);
+        if (run > 1) {
+            return Optional.empty();
+        }
+        if (separator == '-') {
+            return Optional.of(Case.KEBAB_CASE);
+        } else if (separator == '_') {
+            return Optional.of(Case.SNAKE_CASE);
+        }
+        return Optional.of(Case.LOWER_CAMEL_CASE);
+    }
+
+    private static Case nameCase(String name) {
+        return classify(name).orElseThrow(() -> new IllegalArgumentException("Unexpected case for: " + name));
+    }
+
+    private static boolean isLower(char ch) {
+        return ch >= 'a' && ch <= 'z';
+    }
+
+    private static boolean isUpper(char ch) {
+        return ch >= 'A' && ch <= 'Z';
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
     }
 }
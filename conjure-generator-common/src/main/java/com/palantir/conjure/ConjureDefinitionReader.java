@@ -0,0 +1,62 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure;
+
+import com.palantir.conjure.spec.ConjureDefinition;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a {@link ConjureDefinition} written by the conjure compiler in any of the {@link IrFormat IR formats}, so that
+ * generators do not have to care which one was requested.
+ */
+public final class ConjureDefinitionReader {
+
+    private ConjureDefinitionReader() {}
+
+    /** Reads the definition in {@code file}, detecting its format from the leading bytes. */
+    public static ConjureDefinition read(File file) throws IOException {
+        try (InputStream input = new FileInputStream(file)) {
+            return read(input);
+        }
+    }
+
+    /** Reads a definition from {@code input}, detecting its format from the leading bytes. */
+    public static ConjureDefinition read(InputStream input) throws IOException {
+        InputStream buffered = input.markSupported() ? input : new BufferedInputStream(input);
+        buffered.mark(IrFormat.MAGIC_LENGTH);
+        byte[] header = new byte[IrFormat.MAGIC_LENGTH];
+        int length = 0;
+        while (length < header.length) {
+            int read = buffered.read(header, length, header.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        buffered.reset();
+        return read(buffered, IrFormat.detect(header, length));
+    }
+
+    /** Reads a definition from {@code input} that is known to be encoded as {@code format}. */
+    public static ConjureDefinition read(InputStream input, IrFormat format) throws IOException {
+        return format.reader().forType(ConjureDefinition.class).readValue(input);
+    }
+}
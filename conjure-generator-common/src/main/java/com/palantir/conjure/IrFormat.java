@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The encodings in which a {@link com.palantir.conjure.spec.ConjureDefinition} can be written. All formats carry the
+ * same data model; the binary formats are smaller and faster to read for large definitions.
+ */
+public enum IrFormat {
+    JSON(new JsonFactory(), new byte[0]),
+    /** Smile output always starts with the {@code :)\n} header. */
+    SMILE(new SmileFactory(), new byte[] {':', ')', '\n'}),
+    /** CBOR output is prefixed with the self-describe tag 55799 so that it can be told apart from the others. */
+    CBOR(new CBORFactory().enable(CBORGenerator.Feature.WRITE_TYPE_HEADER), new byte[] {
+        (byte) 0xd9, (byte) 0xd9, (byte) 0xf7
+    });
+
+    /** Length of the longest {@link #magic} prefix, i.e. the number of bytes needed by {@link #detect}. */
+    static final int MAGIC_LENGTH = 3;
+
+    // never handed out, as an ObjectMapper can be reconfigured by its users
+    private final ObjectMapper mapper;
+    private final byte[] magic;
+
+    IrFormat(JsonFactory factory, byte[] magic) {
+        this.mapper = new ObjectMapper(factory)
+                .registerModule(new Jdk8Module())
+                .setSerializationInclusion(JsonInclude.Include.NON_ABSENT);
+        this.magic = magic;
+    }
+
+    /** An {@link ObjectReader} for this format, configured the same way for every format. */
+    public ObjectReader reader() {
+        return mapper.reader();
+    }
+
+    /** An {@link ObjectWriter} for this format, configured the same way for every format. */
+    public ObjectWriter writer() {
+        return mapper.writer();
+    }
+
+    /** Parses a format from its case-insensitive name, e.g. {@code "smile"}. */
+    public static IrFormat fromString(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new SafeIllegalArgumentException(
+                    "Unknown IR format",
+                    SafeArg.of("format", name),
+                    SafeArg.of("supportedFormats", Arrays.toString(values())));
+        }
+    }
+
+    /**
+     * Identifies the format of a serialized definition from its first bytes, falling back to {@link #JSON} when no
+     * binary header is present.
+     */
+    static IrFormat detect(byte[] header, int length) {
+        for (IrFormat format : values()) {
+            if (format.magic.length > 0 && startsWith(header, length, format.magic)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (header[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
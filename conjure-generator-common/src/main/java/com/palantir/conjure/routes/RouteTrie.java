@@ -0,0 +1,414 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.routes;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.palantir.conjure.spec.EndpointDefinition;
+import com.palantir.conjure.spec.HttpMethod;
+import com.palantir.conjure.spec.ServiceDefinition;
+import com.palantir.conjure.spec.TypeName;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * The endpoints of any number of services, arranged by path segment. Literal segments are children keyed by their
+ * text; every path parameter at the same position shares a single child, since paths cannot differ only in the name or
+ * regular expression of a parameter.
+ *
+ * <p>Building the trie and finding {@link Conflict.Kind#DUPLICATE duplicates} takes time linear in the total number
+ * of path segments. Finding ambiguous and swallowed routes only visits the parts of the trie where a parameter and a
+ * literal, or a trailing {@code {name:.+}} or {@code {name:.*}} parameter and longer paths, overlap.
+ */
+public final class RouteTrie {
+
+    private final Node root = new Node();
+    private final List<Route> routes = new ArrayList<>();
+
+    private RouteTrie() {}
+
+    public static RouteTrie of(ServiceDefinition service) {
+        return of(ImmutableList.of(service));
+    }
+
+    public static RouteTrie of(Collection<ServiceDefinition> services) {
+        RouteTrie trie = new RouteTrie();
+        services.forEach(service -> service.getEndpoints().forEach(endpoint -> trie.add(service, endpoint)));
+        return trie;
+    }
+
+    /** Every endpoint in the trie, in the order the services and their endpoints were given. */
+    public List<Route> routes() {
+        return Collections.unmodifiableList(routes);
+    }
+
+    /**
+     * The endpoint serving {@code method} on the request path {@code path}, e.g. {@code /catalog/books/42}. At each
+     * segment a literal match is preferred over a path parameter, and a path parameter over a trailing parameter that
+     * matches the rest of the path. A trailing {@code {name:.*}} parameter also matches when no segments are left, e.g.
+     * {@code /catalog/files/{path:.*}} serves {@code /catalog/files}, unless that path has an endpoint of its own.
+     */
+    public Optional<Route> match(HttpMethod method, String path) {
+        return match(root, segments(path), 0, method);
+    }
+
+    /** Routes with the same method and the same path once path parameters are normalized. */
+    public List<Conflict> duplicates() {
+        return new ConflictSearch(false).duplicates();
+    }
+
+    /** All conflicts between routes, duplicates first, then ambiguous routes, then swallowed routes. */
+    public List<Conflict> conflicts() {
+        return new ConflictSearch(false).conflicts();
+    }
+
+    /**
+     * The {@link #conflicts()} between routes of different services. Rather than filtering all conflicts, the search
+     * skips pairs of routes of the same service, and parts of the trie that only hold routes of a single service.
+     */
+    public List<Conflict> crossServiceConflicts() {
+        return new ConflictSearch(true).conflicts();
+    }
+
+    private void add(ServiceDefinition service, EndpointDefinition endpoint) {
+        List<String> segments = segments(endpoint.getHttpPath().get());
+        Node node = root;
+        node.addService(service.getServiceName());
+        for (String segment : segments) {
+            node = isParameter(segment) ? node.parameter() : node.literal(segment);
+            node.addService(service.getServiceName());
+        }
+        String last = segments.isEmpty() ? "" : segments.get(segments.size() - 1);
+        Route route = new Route(
+                service.getServiceName(), endpoint, normalize(segments), isTail(last), matchesEmpty(last));
+        node.routes.computeIfAbsent(endpoint.getHttpMethod(), _method -> new ArrayList<>()).add(route);
+        routes.add(route);
+    }
+
+    private static Optional<Route> match(Node node, List<String> segments, int index, HttpMethod method) {
+        if (index == segments.size()) {
+            Optional<Route> exact = node.first(method, false);
+            if (exact.isPresent() || node.parameter == null) {
+                return exact;
+            }
+            return node.parameter.routes.getOrDefault(method, ImmutableList.of()).stream()
+                    .filter(Route::matchesEmpty)
+                    .findFirst();
+        }
+        Node literal = node.literals.get(segments.get(index));
+        if (literal != null) {
+            Optional<Route> result = match(literal, segments, index + 1, method);
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        if (node.parameter == null) {
+            return Optional.empty();
+        }
+        Optional<Route> result = match(node.parameter, segments, index + 1, method);
+        if (result.isPresent()) {
+            return result;
+        }
+        return node.parameter.first(method, true);
+    }
+
+    /** A search for conflicts, either between all routes or only between routes of different services. */
+    private final class ConflictSearch {
+        private final boolean crossServiceOnly;
+        private final List<Conflict> ambiguous = new ArrayList<>();
+        private final List<Conflict> swallowed = new ArrayList<>();
+
+        private ConflictSearch(boolean crossServiceOnly) {
+            this.crossServiceOnly = crossServiceOnly;
+        }
+
+        List<Conflict> duplicates() {
+            List<Conflict> duplicates = new ArrayList<>();
+            root.forEach(node -> node.routes.values().forEach(sameMethod -> {
+                if (sameMethod.size() > 1) {
+                    Conflict duplicate = new Conflict(Conflict.Kind.DUPLICATE, sameMethod);
+                    if (!crossServiceOnly || duplicate.isCrossService()) {
+                        duplicates.add(duplicate);
+                    }
+                }
+            }));
+            return duplicates;
+        }
+
+        List<Conflict> conflicts() {
+            root.forEach(node -> {
+                if (node.parameter != null) {
+                    node.literals.values().forEach(literal -> findAmbiguous(literal, node.parameter, true));
+                    node.parameter.routes.values().stream()
+                            .flatMap(List::stream)
+                            .filter(Route::isTail)
+                            .forEach(tail -> findSwallowed(tail, node));
+                }
+            });
+            return ImmutableList.<Conflict>builder()
+                    .addAll(duplicates())
+                    .addAll(ambiguous)
+                    .addAll(swallowed)
+                    .build();
+        }
+
+        /**
+         * Routes below {@code literal} and {@code parameter} that match a common request path. The two nodes are at
+         * the same depth, and at some segment so far {@code literal} was reached through a literal where {@code
+         * parameter} was reached through a path parameter. Directly below the segment where the two paths split,
+         * trailing parameters are left to {@link #findSwallowed}.
+         */
+        private void findAmbiguous(Node literal, Node parameter, boolean atSplit) {
+            // the routes below both nodes can only conflict across services if they belong to several services
+            if (crossServiceOnly
+                    && (literal.service == null
+                            || (literal.servesOnly(literal.service) && parameter.servesOnly(literal.service)))) {
+                return;
+            }
+            literal.routes.forEach((method, literalRoutes) -> {
+                List<Route> parameterRoutes = parameter.routes.getOrDefault(method, ImmutableList.of());
+                literalRoutes.forEach(literalRoute -> parameterRoutes.stream()
+                        .filter(route -> !atSplit || !route.isTail())
+                        .filter(route -> !crossServiceOnly || !route.service().equals(literalRoute.service()))
+                        .forEach(parameterRoute -> ambiguous.add(new Conflict(
+                                Conflict.Kind.AMBIGUOUS, ImmutableList.of(literalRoute, parameterRoute)))));
+            });
+            literal.literals.forEach((segment, child) -> {
+                Node sameLiteral = parameter.literals.get(segment);
+                if (sameLiteral != null) {
+                    findAmbiguous(child, sameLiteral, false);
+                }
+                if (parameter.parameter != null) {
+                    findAmbiguous(child, parameter.parameter, false);
+                }
+            });
+            if (literal.parameter != null) {
+                parameter.literals.values().forEach(child -> findAmbiguous(child, literal.parameter, false));
+                if (parameter.parameter != null) {
+                    findAmbiguous(literal.parameter, parameter.parameter, false);
+                }
+            }
+        }
+
+        /**
+         * Routes with the same method as {@code tail} that continue past {@code parent}, other than at the tail
+         * itself, and the routes at {@code parent} if the tail also matches an empty remainder.
+         */
+        private void findSwallowed(Route tail, Node parent) {
+            Node tailNode = parent.parameter;
+            if (tail.matchesEmpty()) {
+                addSwallowed(tail, parent);
+            }
+            parent.literals.values().forEach(child -> addSwallowedBelow(tail, child));
+            tailNode.literals.values().forEach(child -> addSwallowedBelow(tail, child));
+            if (tailNode.parameter != null) {
+                addSwallowedBelow(tail, tailNode.parameter);
+            }
+        }
+
+        private void addSwallowedBelow(Route tail, Node node) {
+            if (crossServiceOnly && node.servesOnly(tail.service())) {
+                return;
+            }
+            addSwallowed(tail, node);
+            node.literals.values().forEach(child -> addSwallowedBelow(tail, child));
+            if (node.parameter != null) {
+                addSwallowedBelow(tail, node.parameter);
+            }
+        }
+
+        private void addSwallowed(Route tail, Node node) {
+            node.routes.getOrDefault(tail.method(), ImmutableList.of()).stream()
+                    .filter(route -> !crossServiceOnly || !route.service().equals(tail.service()))
+                    .forEach(route ->
+                            swallowed.add(new Conflict(Conflict.Kind.SWALLOWED, ImmutableList.of(route, tail))));
+        }
+    }
+
+    private static List<String> segments(String path) {
+        String withoutSlash = path.startsWith("/") ? path.substring(1) : path;
+        return withoutSlash.isEmpty() ? ImmutableList.of() : Splitter.on('/').splitToList(withoutSlash);
+    }
+
+    private static boolean isParameter(String segment) {
+        return segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    private static boolean isTail(String segment) {
+        return isParameter(segment) && segment.indexOf(':') >= 0;
+    }
+
+    private static boolean matchesEmpty(String segment) {
+        return isTail(segment) && segment.endsWith(":.*}");
+    }
+
+    /** The path with every parameter written as {@code {arg}}, which is how routes are compared. */
+    private static String normalize(List<String> segments) {
+        StringBuilder builder = new StringBuilder();
+        for (String segment : segments) {
+            builder.append('/').append(isParameter(segment) ? "{arg}" : segment);
+        }
+        return builder.length() == 0 ? "/" : builder.toString();
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new LinkedHashMap<>();
+        private final Map<HttpMethod, List<Route>> routes = new LinkedHashMap<>();
+        private Node parameter;
+        // the service of the routes at and below this node, unless they belong to several services
+        private TypeName service;
+        private boolean severalServices;
+
+        Node literal(String segment) {
+            return literals.computeIfAbsent(segment, _segment -> new Node());
+        }
+
+        Node parameter() {
+            if (parameter == null) {
+                parameter = new Node();
+            }
+            return parameter;
+        }
+
+        void addService(TypeName routeService) {
+            if (service == null) {
+                service = routeService;
+            } else if (!service.equals(routeService)) {
+                severalServices = true;
+            }
+        }
+
+        /** Whether every route at and below this node, if any, belongs to {@code other}. */
+        boolean servesOnly(TypeName other) {
+            return !severalServices && (service == null || service.equals(other));
+        }
+
+        Optional<Route> first(HttpMethod method, boolean tail) {
+            return routes.getOrDefault(method, ImmutableList.of()).stream()
+                    .filter(route -> !tail || route.isTail())
+                    .findFirst();
+        }
+
+        /** Visits this node and every node below it, parents before children. */
+        void forEach(Consumer<Node> action) {
+            action.accept(this);
+            literals.values().forEach(child -> child.forEach(action));
+            if (parameter != null) {
+                parameter.forEach(action);
+            }
+        }
+    }
+
+    /** An endpoint of a service, as placed in the trie. */
+    public static final class Route {
+        private final TypeName service;
+        private final EndpointDefinition endpoint;
+        private final String normalizedPath;
+        private final boolean tail;
+        private final boolean matchesEmpty;
+
+        private Route(
+                TypeName service,
+                EndpointDefinition endpoint,
+                String normalizedPath,
+                boolean tail,
+                boolean matchesEmpty) {
+            this.service = service;
+            this.endpoint = endpoint;
+            this.normalizedPath = normalizedPath;
+            this.tail = tail;
+            this.matchesEmpty = matchesEmpty;
+        }
+
+        public TypeName service() {
+            return service;
+        }
+
+        public EndpointDefinition endpoint() {
+            return endpoint;
+        }
+
+        public HttpMethod method() {
+            return endpoint.getHttpMethod();
+        }
+
+        /** The method and path with every path parameter written as {@code {arg}}, e.g. {@code GET /books/{arg}}. */
+        public String normalizedMethodPath() {
+            return method().get() + " " + normalizedPath;
+        }
+
+        /** Whether the path ends in a parameter with a regular expression, such as {@code {name:.+}}. */
+        public boolean isTail() {
+            return tail;
+        }
+
+        /** Whether the path ends in a {@code {name:.*}} parameter, which also matches no segments at all. */
+        public boolean matchesEmpty() {
+            return matchesEmpty;
+        }
+
+        @Override
+        public String toString() {
+            return service.getName() + "." + endpoint.getEndpointName().get() + " (" + method().get() + " "
+                    + endpoint.getHttpPath().get() + ")";
+        }
+    }
+
+    /** Routes that can be chosen for the same request. */
+    public static final class Conflict {
+        public enum Kind {
+            /** The routes have the same method and the same path once path parameters are normalized. */
+            DUPLICATE,
+            /** A literal segment of the first route is matched by a path parameter of the second route. */
+            AMBIGUOUS,
+            /** The trailing parameter of the second route matches the rest of the path of the first route. */
+            SWALLOWED
+        }
+
+        private final Kind kind;
+        private final List<Route> routes;
+
+        private Conflict(Kind kind, List<Route> routes) {
+            this.kind = kind;
+            this.routes = ImmutableList.copyOf(routes);
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public List<Route> routes() {
+            return routes;
+        }
+
+        /** Whether the routes belong to more than one service. */
+        public boolean isCrossService() {
+            return routes.stream().map(Route::service).distinct().count() > 1;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + routes;
+        }
+    }
+}
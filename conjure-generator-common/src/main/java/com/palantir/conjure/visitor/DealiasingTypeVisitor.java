@@ -32,9 +32,19 @@ import com.palantir.conjure.spec.TypeDefinition;
 import com.palantir.conjure.spec.TypeName;
 import com.palantir.conjure.spec.UnionDefinition;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves references through aliases. Each {@link TypeName} is resolved once and its final resolution is remembered,
+ * as is the resolution of every alias passed on the way, so long alias chains are only walked the first time any of
+ * their members is looked up. Instances are safe to share between threads; the map of types must not change once the
+ * visitor has been created.
+ */
 public final class DealiasingTypeVisitor implements Type.Visitor<Either<TypeDefinition, Type>> {
     private final Map<TypeName, TypeDefinition> objects;
+    private final ConcurrentMap<TypeName, Either<TypeDefinition, Type>> resolutions = new ConcurrentHashMap<>();
+    private final TypeDefinition.Visitor<Either<TypeDefinition, Type>> definitionVisitor = new DefinitionVisitor();
 
     public DealiasingTypeVisitor(Map<TypeName, TypeDefinition> objects) {
         this.objects = objects;
@@ -54,36 +64,45 @@ public final class DealiasingTypeVisitor implements Type.Visitor<Either<TypeDefi
 
     @Override
     public Either<TypeDefinition, Type> visitReference(TypeName value) {
+        // not computeIfAbsent: resolving an alias recursively resolves its target through the same map
+        Either<TypeDefinition, Type> resolution = resolutions.get(value);
+        if (resolution != null) {
+            return resolution;
+        }
         TypeDefinition typeDefinition = objects.get(value);
         Preconditions.checkState(
                 typeDefinition != null, "Referenced TypeDefinition not found in map of types for TypeName: %s", value);
-        return typeDefinition.accept(new TypeDefinition.Visitor<Either<TypeDefinition, Type>>() {
-            @Override
-            public Either<TypeDefinition, Type> visitAlias(AliasDefinition value) {
-                // Recursively visit target of alias
-                return value.getAlias().accept(DealiasingTypeVisitor.this);
-            }
-
-            @Override
-            public Either<TypeDefinition, Type> visitEnum(EnumDefinition value) {
-                return Either.left(TypeDefinition.enum_(value));
-            }
-
-            @Override
-            public Either<TypeDefinition, Type> visitObject(ObjectDefinition value) {
-                return Either.left(TypeDefinition.object(value));
-            }
-
-            @Override
-            public Either<TypeDefinition, Type> visitUnion(UnionDefinition value) {
-                return Either.left(TypeDefinition.union(value));
-            }
-
-            @Override
-            public Either<TypeDefinition, Type> visitUnknown(String unknownType) {
-                throw new IllegalStateException("Unsupported type: " + unknownType);
-            }
-        });
+        resolution = typeDefinition.accept(definitionVisitor);
+        Either<TypeDefinition, Type> existing = resolutions.putIfAbsent(value, resolution);
+        return existing != null ? existing : resolution;
+    }
+
+    private final class DefinitionVisitor implements TypeDefinition.Visitor<Either<TypeDefinition, Type>> {
+        @Override
+        public Either<TypeDefinition, Type> visitAlias(AliasDefinition value) {
+            // Recursively visit target of alias
+            return value.getAlias().accept(DealiasingTypeVisitor.this);
+        }
+
+        @Override
+        public Either<TypeDefinition, Type> visitEnum(EnumDefinition value) {
+            return Either.left(TypeDefinition.enum_(value));
+        }
+
+        @Override
+        public Either<TypeDefinition, Type> visitObject(ObjectDefinition value) {
+            return Either.left(TypeDefinition.object(value));
+        }
+
+        @Override
+        public Either<TypeDefinition, Type> visitUnion(UnionDefinition value) {
+            return Either.left(TypeDefinition.union(value));
+        }
+
+        @Override
+        public Either<TypeDefinition, Type> visitUnknown(String unknownType) {
+            throw new IllegalStateException("Unsupported type: " + unknownType);
+        }
     }
 
     // Identity mapping for here onwards.
@@ -18,10 +18,30 @@ package com.palantir.conjure;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.cache.CacheBuilder;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import org.junit.Test;
 
 public class CaseConverterTest {
 
+    @Test
+    public void caseCanBeInitializedBeforeCaseConverter() throws Exception {
+        URL[] classpath = {
+            CaseConverter.class.getProtectionDomain().getCodeSource().getLocation(),
+            CacheBuilder.class.getProtectionDomain().getCodeSource().getLocation()
+        };
+        // a fresh class loader, in which neither class has been initialized yet
+        try (URLClassLoader loader = new URLClassLoader(classpath, ClassLoader.getSystemClassLoader().getParent())) {
+            Class<?> caseClass = Class.forName(CaseConverter.Case.class.getName(), true, loader);
+            assertThat(caseClass.getEnumConstants()).hasSize(3);
+        }
+    }
+
     @Test
     public void convertFromCamelCase() {
         assertThat(CaseConverter.toCase("fooBarBaz", CaseConverter.Case.KEBAB_CASE))
@@ -73,4 +93,28 @@ public class CaseConverterTest {
         assertThat(CaseConverter.toCase(snakeCase, CaseConverter.Case.SNAKE_CASE))
                 .isEqualTo(snakeCase);
     }
+
+    @Test
+    public void classifyAgreesWithPatterns() {
+        // every string of up to six characters over an alphabet covering each character class
+        List<String> names = new ArrayList<>();
+        names.add("");
+        for (int length = 1; length <= 6; length++) {
+            List<String> longer = new ArrayList<>();
+            for (String name : names) {
+                if (name.length() == length - 1) {
+                    for (char ch : "aB1-_C".toCharArray()) {
+                        longer.add(name + ch);
+                    }
+                }
+            }
+            names.addAll(longer);
+        }
+        for (String name : names) {
+            Optional<CaseConverter.Case> expected = Arrays.stream(CaseConverter.Case.values())
+                    .filter(nameCase -> nameCase.getPattern().matcher(name).matches())
+                    .findFirst();
+            assertThat(CaseConverter.classify(name)).as(name).isEqualTo(expected);
+        }
+    }
 }
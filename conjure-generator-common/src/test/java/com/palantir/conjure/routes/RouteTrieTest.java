@@ -0,0 +1,176 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.routes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.conjure.spec.EndpointDefinition;
+import com.palantir.conjure.spec.EndpointName;
+import com.palantir.conjure.spec.HttpMethod;
+import com.palantir.conjure.spec.HttpPath;
+import com.palantir.conjure.spec.ServiceDefinition;
+import com.palantir.conjure.spec.TypeName;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class RouteTrieTest {
+
+    private static final ServiceDefinition BOOKS = service(
+            "BookService",
+            endpoint("getBook", HttpMethod.GET, "/catalog/books/{bookId}"),
+            endpoint("searchBooks", HttpMethod.GET, "/catalog/books/search"),
+            endpoint("putBook", HttpMethod.PUT, "/catalog/books/{bookId}"),
+            endpoint("getFile", HttpMethod.GET, "/catalog/files/{path:.+}"));
+    private static final ServiceDefinition ADMIN = service(
+            "AdminService",
+            endpoint("getBookAdmin", HttpMethod.GET, "/catalog/books/{id}"),
+            endpoint("getFileMetadata", HttpMethod.GET, "/catalog/files/{path}/metadata"));
+
+    @Test
+    public void testMatchPrefersLiterals() {
+        RouteTrie trie = RouteTrie.of(BOOKS);
+        assertThat(matchedEndpoint(trie, HttpMethod.GET, "/catalog/books/search")).isEqualTo("searchBooks");
+        assertThat(matchedEndpoint(trie, HttpMethod.GET, "/catalog/books/42")).isEqualTo("getBook");
+        assertThat(matchedEndpoint(trie, HttpMethod.PUT, "/catalog/books/42")).isEqualTo("putBook");
+        assertThat(matchedEndpoint(trie, HttpMethod.GET, "/catalog/files/a/b/c")).isEqualTo("getFile");
+        assertThat(trie.match(HttpMethod.DELETE, "/catalog/books/42")).isEmpty();
+        assertThat(trie.match(HttpMethod.GET, "/catalog")).isEmpty();
+    }
+
+    @Test
+    public void testMatchEmptyTail() {
+        RouteTrie trie = RouteTrie.of(service(
+                "FileService",
+                endpoint("getFile", HttpMethod.GET, "/files/{path:.*}"),
+                endpoint("getBlob", HttpMethod.GET, "/blobs/{path:.+}"),
+                endpoint("getStatus", HttpMethod.GET, "/status"),
+                endpoint("getStatusDetail", HttpMethod.GET, "/status/{detail:.*}")));
+        assertThat(matchedEndpoint(trie, HttpMethod.GET, "/files")).isEqualTo("getFile");
+        assertThat(matchedEndpoint(trie, HttpMethod.GET, "/files/a/b")).isEqualTo("getFile");
+        assertThat(trie.match(HttpMethod.GET, "/blobs")).isEmpty();
+        assertThat(matchedEndpoint(trie, HttpMethod.GET, "/status")).isEqualTo("getStatus");
+        assertThat(matchedEndpoint(trie, HttpMethod.GET, "/status/a")).isEqualTo("getStatusDetail");
+        assertThat(trie.conflicts().stream()
+                        .map(conflict -> conflict.kind() + " " + endpointNames(conflict))
+                        .collect(Collectors.toList()))
+                .containsExactly("SWALLOWED [getStatus, getStatusDetail]");
+    }
+
+    @Test
+    public void testDuplicatesIgnoreParameterNames() {
+        List<RouteTrie.Conflict> duplicates = RouteTrie.of(ImmutableList.of(BOOKS, ADMIN)).duplicates();
+        assertThat(duplicates).hasSize(1);
+        assertThat(duplicates.get(0).isCrossService()).isTrue();
+        assertThat(endpointNames(duplicates.get(0))).containsExactly("getBook", "getBookAdmin");
+        assertThat(duplicates.get(0).routes().get(0).normalizedMethodPath()).isEqualTo("GET /catalog/books/{arg}");
+    }
+
+    @Test
+    public void testConflicts() {
+        List<RouteTrie.Conflict> conflicts = RouteTrie.of(ImmutableList.of(BOOKS, ADMIN)).conflicts();
+        assertThat(conflicts.stream()
+                        .map(conflict -> conflict.kind() + " " + endpointNames(conflict))
+                        .collect(Collectors.toList()))
+                .containsExactly(
+                        "DUPLICATE [getBook, getBookAdmin]",
+                        "AMBIGUOUS [searchBooks, getBook]",
+                        "AMBIGUOUS [searchBooks, getBookAdmin]",
+                        "SWALLOWED [getFileMetadata, getFile]");
+    }
+
+    @Test
+    public void testCrossServiceConflicts() {
+        assertThat(RouteTrie.of(ImmutableList.of(BOOKS, ADMIN)).crossServiceConflicts().stream()
+                        .map(conflict -> conflict.kind() + " " + endpointNames(conflict))
+                        .collect(Collectors.toList()))
+                .containsExactly(
+                        "DUPLICATE [getBook, getBookAdmin]",
+                        "AMBIGUOUS [searchBooks, getBookAdmin]",
+                        "SWALLOWED [getFileMetadata, getFile]");
+    }
+
+    @Test
+    public void testCrossServiceConflictsAreTheConflictsBetweenServices() {
+        List<String> segments = ImmutableList.of("a", "b", "{id}", "{rest:.+}", "{rest:.*}");
+        HttpMethod[] methods = {HttpMethod.GET, HttpMethod.POST};
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<ServiceDefinition> services = new ArrayList<>();
+            for (int serviceIndex = 0; serviceIndex < 3; serviceIndex++) {
+                List<EndpointDefinition> endpoints = new ArrayList<>();
+                for (int endpointIndex = 0; endpointIndex < 6; endpointIndex++) {
+                    StringBuilder path = new StringBuilder();
+                    int length = 1 + random.nextInt(3);
+                    for (int depth = 0; depth < length; depth++) {
+                        // only the last segment may be a trailing parameter
+                        int choices = depth == length - 1 ? segments.size() : 3;
+                        path.append('/').append(segments.get(random.nextInt(choices)));
+                    }
+                    endpoints.add(endpoint(
+                            "endpoint" + endpointIndex, methods[random.nextInt(methods.length)], path.toString()));
+                }
+                services.add(service("Service" + serviceIndex, endpoints.toArray(new EndpointDefinition[0])));
+            }
+            RouteTrie trie = RouteTrie.of(services);
+            assertThat(trie.crossServiceConflicts())
+                    .hasToString(trie.conflicts().stream()
+                            .filter(RouteTrie.Conflict::isCrossService)
+                            .collect(Collectors.toList())
+                            .toString());
+        }
+    }
+
+    @Test
+    public void testNoConflictsBetweenMethods() {
+        assertThat(RouteTrie.of(service(
+                                "Service",
+                                endpoint("get", HttpMethod.GET, "/items/{id}"),
+                                endpoint("post", HttpMethod.POST, "/items/new")))
+                        .conflicts())
+                .isEmpty();
+    }
+
+    private static String matchedEndpoint(RouteTrie trie, HttpMethod method, String path) {
+        return trie.match(method, path).get().endpoint().getEndpointName().get();
+    }
+
+    private static List<String> endpointNames(RouteTrie.Conflict conflict) {
+        return conflict.routes().stream()
+                .map(route -> route.endpoint().getEndpointName().get())
+                .collect(Collectors.toList());
+    }
+
+    private static ServiceDefinition service(String name, EndpointDefinition... endpoints) {
+        return ServiceDefinition.builder()
+                .serviceName(TypeName.of(name, "com.palantir.catalog"))
+                .addAllEndpoints(Arrays.asList(endpoints))
+                .build();
+    }
+
+    private static EndpointDefinition endpoint(String name, HttpMethod method, String path) {
+        return EndpointDefinition.builder()
+                .endpointName(EndpointName.of(name))
+                .httpMethod(method)
+                .httpPath(HttpPath.of(path))
+                .build();
+    }
+}
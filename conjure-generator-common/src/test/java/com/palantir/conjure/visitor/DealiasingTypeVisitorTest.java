@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.visitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.conjure.either.Either;
+import com.palantir.conjure.spec.AliasDefinition;
+import com.palantir.conjure.spec.Documentation;
+import com.palantir.conjure.spec.ListType;
+import com.palantir.conjure.spec.PrimitiveType;
+import com.palantir.conjure.spec.Type;
+import com.palantir.conjure.spec.TypeDefinition;
+import com.palantir.conjure.spec.TypeName;
+import org.junit.Test;
+
+public class DealiasingTypeVisitorTest {
+
+    private static final TypeName OUTER = TypeName.of("Outer", "com.palantir.foo");
+    private static final TypeName INNER = TypeName.of("Inner", "com.palantir.foo");
+    private static final Type LIST = Type.list(ListType.of(Type.primitive(PrimitiveType.INTEGER)));
+
+    private final DealiasingTypeVisitor visitor = new DealiasingTypeVisitor(ImmutableMap.of(
+            OUTER, alias(OUTER, Type.reference(INNER)),
+            INNER, alias(INNER, LIST)));
+
+    @Test
+    public void testResolvesAliasChain() {
+        assertThat(dealiasedType(Type.reference(OUTER))).isEqualTo(LIST);
+        assertThat(dealiasedType(Type.reference(INNER))).isEqualTo(LIST);
+    }
+
+    @Test
+    public void testRemembersResolution() {
+        Either<TypeDefinition, Type> first = visitor.dealias(Type.reference(OUTER));
+        assertThat(visitor.dealias(Type.reference(OUTER))).isSameAs(first);
+        assertThat(visitor.dealias(Type.reference(INNER))).isSameAs(first);
+    }
+
+    @Test
+    public void testUnknownReference() {
+        assertThatThrownBy(() -> visitor.dealias(Type.reference(TypeName.of("Missing", "com.palantir.foo"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Referenced TypeDefinition not found in map of types");
+    }
+
+    private Type dealiasedType(Type type) {
+        return visitor.dealias(type).fold(
+                typeDefinition -> {
+                    throw new AssertionError("Expected a type but got " + typeDefinition);
+                },
+                resolved -> resolved);
+    }
+
+    private static TypeDefinition alias(TypeName name, Type target) {
+        return TypeDefinition.alias(AliasDefinition.of(name, target, Documentation.of("")));
+    }
+}
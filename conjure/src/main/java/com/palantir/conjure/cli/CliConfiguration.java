@@ -17,6 +17,8 @@
 package com.palantir.conjure.cli;
 
 import com.google.common.collect.ImmutableList;
+import com.palantir.conjure.IrFormat;
+import com.palantir.conjure.defs.ConjureOptions;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -35,6 +37,24 @@ public abstract class CliConfiguration {
 
     abstract Map<String, Object> extensions();
 
+    /** Options passed on to the compiler, such as parallelism and the incremental compilation cache. */
+    @Value.Default
+    ConjureOptions conjureOptions() {
+        return ConjureOptions.builder().build();
+    }
+
+    /** Whether to write the IR without indentation and line breaks. */
+    @Value.Default
+    boolean compact() {
+        return false;
+    }
+
+    /** Encoding of the output IR file. */
+    @Value.Default
+    IrFormat format() {
+        return IrFormat.JSON;
+    }
+
     static Builder builder() {
         return new Builder();
     }
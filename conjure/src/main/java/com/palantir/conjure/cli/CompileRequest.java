@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.cli;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.conjure.IrFormat;
+import java.util.Map;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/** A single compilation submitted to {@link CompilerDaemon}, mirroring the arguments of the compile command. */
+@Value.Immutable
+@JsonSerialize(as = ImmutableCompileRequest.class)
+@JsonDeserialize(as = ImmutableCompileRequest.class)
+public interface CompileRequest {
+    String input();
+
+    String output();
+
+    Map<String, Object> extensions();
+
+    @Value.Default
+    default int parallelism() {
+        return 1;
+    }
+
+    Optional<String> incrementalCacheDirectory();
+
+    @Value.Default
+    default boolean crossServiceRouteWarnings() {
+        return true;
+    }
+
+    @Value.Default
+    default boolean compact() {
+        return false;
+    }
+
+    @Value.Default
+    default IrFormat format() {
+        return IrFormat.JSON;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    final class Builder extends ImmutableCompileRequest.Builder {}
+}
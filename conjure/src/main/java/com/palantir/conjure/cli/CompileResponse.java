@@ -0,0 +1,45 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.cli;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.Throwables;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/** The outcome of a {@link CompileRequest}, written by {@link CompilerDaemon} as a single line of JSON. */
+@Value.Immutable
+@JsonSerialize(as = ImmutableCompileResponse.class)
+@JsonDeserialize(as = ImmutableCompileResponse.class)
+public interface CompileResponse {
+    boolean success();
+
+    /** The stack trace of the failure, if compilation did not succeed. */
+    Optional<String> error();
+
+    static CompileResponse succeeded() {
+        return ImmutableCompileResponse.builder().success(true).build();
+    }
+
+    static CompileResponse failed(Throwable throwable) {
+        return ImmutableCompileResponse.builder()
+                .success(false)
+                .error(Throwables.getStackTraceAsString(throwable))
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.palantir.conjure.defs.ConjureOptions;
+import com.palantir.logsafe.SafeArg;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a warm compiler resident and serves compile requests over a line-based JSON protocol: each line read from the
+ * input is a {@link CompileRequest}, and each request is answered, in order, by exactly one line containing a
+ * {@link CompileResponse}. IR files are written by the same code path as the compile command, so they are
+ * byte-identical to its output.
+ *
+ * <p>The daemon exits when its input is closed, or when no request has been received for the idle timeout.
+ */
+final class CompilerDaemon {
+
+    private static final Logger log = LoggerFactory.getLogger(CompilerDaemon.class);
+    private static final ObjectMapper MAPPER = ConjureCli.OBJECT_MAPPER;
+
+    private final InputStream input;
+    private final Writer output;
+    private final Duration idleTimeout;
+
+    CompilerDaemon(InputStream input, OutputStream output, Duration idleTimeout) {
+        this.input = input;
+        this.output = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        this.idleTimeout = idleTimeout;
+    }
+
+    void run() throws IOException, InterruptedException {
+        // Reads happen on a separate thread so that waiting for the next request can time out.
+        BlockingQueue<Optional<String>> lines = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> readLines(lines), "conjure-daemon-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        while (true) {
+            Optional<String> line = lines.poll(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (line == null) {
+                log.info("No compile request received for {}, shutting down", SafeArg.of("idleTimeout", idleTimeout));
+                return;
+            }
+            if (!line.isPresent()) {
+                return;
+            }
+            if (line.get().trim().isEmpty()) {
+                continue;
+            }
+            output.write(MAPPER.writeValueAsString(handle(line.get())));
+            output.write('\n');
+            output.flush();
+        }
+    }
+
+    private static CompileResponse handle(String line) {
+        try {
+            CompileRequest request = MAPPER.readValue(line, CompileRequest.class);
+            ConjureCli.CompileCommand.generate(CliConfiguration.builder()
+                    .from(CliConfiguration.create(request.input(), request.output(), request.extensions()))
+                    .conjureOptions(ConjureOptions.builder()
+                            .parallelism(request.parallelism())
+                            .incrementalCacheDirectory(request.incrementalCacheDirectory().map(File::new))
+                            .crossServiceRouteWarnings(request.crossServiceRouteWarnings())
+                            .build())
+                    .compact(request.compact())
+                    .format(request.format())
+                    .build());
+            return CompileResponse.succeeded();
+        } catch (IOException | RuntimeException e) {
+            return CompileResponse.failed(e);
+        }
+    }
+
+    private void readLines(BlockingQueue<Optional<String>> lines) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(Optional.of(line));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read compile requests, shutting down", e);
+        } finally {
+            lines.add(Optional.empty());
+        }
+    }
+}
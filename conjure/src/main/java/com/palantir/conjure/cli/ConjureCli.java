@@ -21,14 +21,19 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.annotations.VisibleForTesting;
+import com.palantir.conjure.IrFormat;
 import com.palantir.conjure.defs.Conjure;
+import com.palantir.conjure.defs.ConjureOptions;
 import com.palantir.conjure.spec.ConjureDefinition;
 import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import javax.annotation.Nullable;
 import picocli.CommandLine;
 
@@ -36,7 +41,7 @@ import picocli.CommandLine;
         name = "conjure",
         description = "CLI to generate Conjure IR from Conjure YML definitions.",
         mixinStandardHelpOptions = true,
-        subcommands = ConjureCli.CompileCommand.class)
+        subcommands = {ConjureCli.CompileCommand.class, ConjureCli.DaemonCommand.class})
 public final class ConjureCli implements Runnable {
     public static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
             .registerModule(new Jdk8Module())
@@ -71,6 +76,35 @@ public final class ConjureCli implements Runnable {
         @Nullable
         private String extensions;
 
+        @CommandLine.Option(
+                names = "--parallelism",
+                description = "Number of threads used to parse, convert and validate the input files.",
+                defaultValue = "1")
+        private int parallelism;
+
+        @CommandLine.Option(
+                names = "--incremental-cache-dir",
+                description = "Directory in which to keep per-file results between runs, so that only changed files "
+                        + "and the files importing them are recompiled.")
+        @Nullable
+        private String incrementalCacheDirectory;
+
+        @CommandLine.Option(
+                names = "--no-cross-service-route-warnings",
+                description = "Do not warn about routes of different services that can serve the same request.")
+        private boolean noCrossServiceRouteWarnings;
+
+        @CommandLine.Option(
+                names = "--compact",
+                description = "Write the IR without indentation and line breaks.")
+        private boolean compact;
+
+        @CommandLine.Option(
+                names = "--format",
+                description = "Encoding of the output IR file: json, smile or cbor.",
+                defaultValue = "json")
+        private String format;
+
         @CommandLine.Unmatched
         @Nullable
         private List<String> unmatchedOptions;
@@ -85,14 +119,13 @@ public final class ConjureCli implements Runnable {
             generate(config);
         }
 
-        @VisibleForTesting
         static void generate(CliConfiguration config) {
             ConjureDefinition definition = ConjureDefinition.builder()
-                    .from(Conjure.parse(config.inputFiles()))
+                    .from(Conjure.parse(config.inputFiles(), config.conjureOptions()))
                     .extensions(config.extensions())
                     .build();
             try {
-                OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(config.outputIrFile(), definition);
+                ConjureDefinitionWriter.write(definition, config.outputIrFile(), config.format(), !config.compact());
             } catch (IOException e) {
                 throw new RuntimeException("Failed to serialize IR file to " + config.outputIrFile(), e);
             }
@@ -100,12 +133,41 @@ public final class ConjureCli implements Runnable {
 
         @VisibleForTesting
         CliConfiguration getConfiguration() {
-            return CliConfiguration.create(
-                    input,
-                    output,
-                    Optional.ofNullable(extensions)
-                            .map(ConjureCli::parseExtensions)
-                            .orElseGet(Collections::emptyMap));
+            return CliConfiguration.builder()
+                    .from(CliConfiguration.create(
+                            input,
+                            output,
+                            Optional.ofNullable(extensions)
+                                    .map(ConjureCli::parseExtensions)
+                                    .orElseGet(Collections::emptyMap)))
+                    .conjureOptions(ConjureOptions.builder()
+                            .parallelism(parallelism)
+                            .incrementalCacheDirectory(Optional.ofNullable(incrementalCacheDirectory).map(File::new))
+                            .crossServiceRouteWarnings(!noCrossServiceRouteWarnings)
+                            .build())
+                    .compact(compact)
+                    .format(IrFormat.fromString(format))
+                    .build();
+        }
+    }
+
+    @CommandLine.Command(
+            name = "daemon",
+            description = "Keep a warm compiler running, reading one JSON compile request per line from stdin and "
+                    + "writing one JSON response per line to stdout.",
+            mixinStandardHelpOptions = true,
+            usageHelpWidth = 120)
+    public static final class DaemonCommand implements Callable<Integer> {
+        @CommandLine.Option(
+                names = "--idle-timeout-seconds",
+                description = "Shut down after this many seconds without a compile request.",
+                defaultValue = "600")
+        private long idleTimeoutSeconds;
+
+        @Override
+        public Integer call() throws IOException, InterruptedException {
+            new CompilerDaemon(System.in, System.out, Duration.ofSeconds(idleTimeoutSeconds)).run();
+            return 0;
         }
     }
 
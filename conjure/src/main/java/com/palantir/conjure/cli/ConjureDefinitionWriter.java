@@ -0,0 +1,78 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.conjure.cli;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.palantir.conjure.IrFormat;
+import com.palantir.conjure.spec.ConjureDefinition;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes a {@link ConjureDefinition} to a file one type, error and service at a time, instead of handing the whole
+ * definition to a single {@link ObjectWriter#writeValue} call. The output is identical to serializing the definition
+ * with the {@link IrFormat#writer() writer of the chosen format} (using its default pretty printer when
+ * {@code pretty} is set, which only affects {@link IrFormat#JSON}).
+ */
+final class ConjureDefinitionWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private ConjureDefinitionWriter() {}
+
+    static void write(ConjureDefinition definition, File file, boolean pretty) throws IOException {
+        write(definition, file, IrFormat.JSON, pretty);
+    }
+
+    static void write(ConjureDefinition definition, File file, IrFormat format, boolean pretty) throws IOException {
+        // flushing after every element would defeat the output buffer
+        ObjectWriter elementWriter = format.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+                JsonGenerator generator = elementWriter.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+            if (pretty && format == IrFormat.JSON) {
+                generator.setPrettyPrinter(new DefaultPrettyPrinter());
+            }
+            // fields in the order of ConjureDefinition's serialized form
+            generator.writeStartObject();
+            generator.writeNumberField("version", definition.getVersion());
+            writeArray(generator, elementWriter, "errors", definition.getErrors());
+            writeArray(generator, elementWriter, "types", definition.getTypes());
+            writeArray(generator, elementWriter, "services", definition.getServices());
+            generator.writeFieldName("extensions");
+            elementWriter.writeValue(generator, definition.getExtensions());
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeArray(
+            JsonGenerator generator, ObjectWriter elementWriter, String fieldName, List<?> elements)
+            throws IOException {
+        generator.writeArrayFieldStart(fieldName);
+        for (Object element : elements) {
+            elementWriter.writeValue(generator, element);
+        }
+        generator.writeEndArray();
+    }
+}
@@ -19,11 +19,29 @@ package com.palantir.conjure.cli;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
+import com.palantir.conjure.ConjureDefinitionReader;
+import com.palantir.conjure.IrFormat;
+import com.palantir.conjure.defs.Conjure;
+import com.palantir.conjure.defs.ConjureOptions;
+import com.palantir.conjure.spec.ConjureDefinition;
+import com.palantir.conjure.spec.PrimitiveType;
+import com.palantir.conjure.spec.Type;
+import com.palantir.conjure.visitor.TypeDefinitionVisitor;
 import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -64,6 +82,53 @@ public final class ConjureCliTest {
         assertThat(cmd.getConfiguration()).isEqualTo(expectedConfiguration);
     }
 
+    @Test
+    public void correctlyParsesParallelism() {
+        String[] args = {"compile", inputFile.getAbsolutePath(), outputFile.getAbsolutePath(), "--parallelism", "4"};
+        CliConfiguration expectedConfiguration = CliConfiguration.builder()
+                .inputFiles(ImmutableList.of(inputFile))
+                .outputIrFile(outputFile)
+                .conjureOptions(ConjureOptions.builder().parallelism(4).build())
+                .build();
+        ConjureCli.CompileCommand cmd = new CommandLine(new ConjureCli())
+                .parseArgs(args)
+                .asCommandLineList()
+                .get(1)
+                .getCommand();
+        assertThat(cmd.getConfiguration()).isEqualTo(expectedConfiguration);
+    }
+
+    @Test
+    public void correctlyParsesNoCrossServiceRouteWarnings() {
+        String[] args = {
+            "compile", inputFile.getAbsolutePath(), outputFile.getAbsolutePath(), "--no-cross-service-route-warnings"
+        };
+        CliConfiguration expectedConfiguration = CliConfiguration.builder()
+                .inputFiles(ImmutableList.of(inputFile))
+                .outputIrFile(outputFile)
+                .conjureOptions(ConjureOptions.builder().crossServiceRouteWarnings(false).build())
+                .build();
+        ConjureCli.CompileCommand cmd = new CommandLine(new ConjureCli())
+                .parseArgs(args)
+                .asCommandLineList()
+                .get(1)
+                .getCommand();
+        assertThat(cmd.getConfiguration()).isEqualTo(expectedConfiguration);
+    }
+
+    @Test
+    public void rejectsParallelismBelowOne() {
+        String[] args = {"compile", inputFile.getAbsolutePath(), outputFile.getAbsolutePath(), "--parallelism", "0"};
+        ConjureCli.CompileCommand cmd = new CommandLine(new ConjureCli())
+                .parseArgs(args)
+                .asCommandLineList()
+                .get(1)
+                .getCommand();
+        assertThatThrownBy(cmd::getConfiguration)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Parallelism must be at least 1: 0");
+    }
+
     @Test
     public void discoversFilesInDirectory() {
         String[] args = {"compile", folder.getRoot().getAbsolutePath(), outputFile.getAbsolutePath()};
@@ -137,6 +202,99 @@ public final class ConjureCliTest {
         assertThat(outputFile.isFile()).isTrue();
     }
 
+    @Test
+    public void streamingWriterMatchesObjectMapper() throws IOException {
+        ConjureDefinition definition = ConjureDefinition.builder()
+                .from(Conjure.parse(ImmutableList.of(new File("src/test/resources/test-service.yml"))))
+                .putExtensions("foo", "bar")
+                .build();
+        File compactFile = new File(folder.getRoot(), "compact.json");
+
+        ConjureDefinitionWriter.write(definition, outputFile, true);
+        ConjureDefinitionWriter.write(definition, compactFile, false);
+
+        assertThat(Files.readAllBytes(outputFile.toPath()))
+                .isEqualTo(ConjureCli.OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(definition));
+        assertThat(Files.readAllBytes(compactFile.toPath()))
+                .isEqualTo(ConjureCli.OBJECT_MAPPER.writeValueAsBytes(definition));
+    }
+
+    @Test
+    public void binaryFormatsRoundTrip() throws IOException {
+        ConjureDefinition definition = ConjureDefinition.builder()
+                .from(Conjure.parse(ImmutableList.of(new File("src/test/resources/test-service.yml"))))
+                .putExtensions("foo", "bar")
+                .build();
+
+        for (IrFormat format : IrFormat.values()) {
+            File file = new File(folder.getRoot(), "conjureIr." + format);
+            ConjureCli.CompileCommand.generate(CliConfiguration.builder()
+                    .inputFiles(ImmutableList.of(new File("src/test/resources/test-service.yml")))
+                    .outputIrFile(file)
+                    .putExtensions("foo", "bar")
+                    .format(format)
+                    .build());
+            assertThat(ConjureDefinitionReader.read(file)).isEqualTo(definition);
+        }
+    }
+
+    @Test
+    public void rejectsUnknownFormat() {
+        String[] args = {"compile", inputFile.getAbsolutePath(), outputFile.getAbsolutePath(), "--format", "xml"};
+        ConjureCli.CompileCommand cmd = new CommandLine(new ConjureCli())
+                .parseArgs(args)
+                .asCommandLineList()
+                .get(1)
+                .getCommand();
+        assertThatThrownBy(cmd::getConfiguration)
+                .isInstanceOf(SafeIllegalArgumentException.class)
+                .hasMessageContaining("Unknown IR format");
+    }
+
+    @Test
+    public void daemonWritesSameIrAsCompile() throws Exception {
+        File input = new File("src/test/resources/test-service.yml");
+        File daemonOutputFile = new File(folder.getRoot(), "daemonIr.json");
+        ConjureCli.CompileCommand.generate(CliConfiguration.builder()
+                .inputFiles(ImmutableList.of(input))
+                .outputIrFile(outputFile)
+                .build());
+
+        String requests = ConjureCli.OBJECT_MAPPER.writeValueAsString(CompileRequest.builder()
+                        .input(input.getAbsolutePath())
+                        .output(daemonOutputFile.getAbsolutePath())
+                        .build())
+                + "\n"
+                + ConjureCli.OBJECT_MAPPER.writeValueAsString(CompileRequest.builder()
+                        .input(inputFile.getAbsolutePath())
+                        .output(daemonOutputFile.getAbsolutePath())
+                        .build())
+                + "\n";
+        ByteArrayOutputStream responses = new ByteArrayOutputStream();
+        new CompilerDaemon(
+                        new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)),
+                        responses,
+                        Duration.ofMinutes(1))
+                .run();
+
+        assertThat(Files.readAllBytes(daemonOutputFile.toPath())).isEqualTo(Files.readAllBytes(outputFile.toPath()));
+        List<String> lines = Splitter.on('\n').omitEmptyStrings().splitToList(responses.toString("UTF-8"));
+        assertThat(lines).hasSize(2);
+        assertThat(ConjureCli.OBJECT_MAPPER.readValue(lines.get(0), CompileResponse.class))
+                .isEqualTo(CompileResponse.succeeded());
+        CompileResponse failure = ConjureCli.OBJECT_MAPPER.readValue(lines.get(1), CompileResponse.class);
+        assertThat(failure.success()).isFalse();
+        assertThat(failure.error()).hasValueSatisfying(error -> assertThat(error).contains("MismatchedInputException"));
+    }
+
+    @Test
+    public void daemonShutsDownWhenIdle() throws Exception {
+        try (PipedOutputStream requests = new PipedOutputStream();
+                PipedInputStream input = new PipedInputStream(requests)) {
+            new CompilerDaemon(input, new ByteArrayOutputStream(), Duration.ofMillis(50)).run();
+        }
+    }
+
     @Test
     public void throwsWhenInvalidDefinition() throws Exception {
         CliConfiguration configuration = CliConfiguration.builder()
@@ -147,4 +305,76 @@ public final class ConjureCliTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("MismatchedInputException");
     }
+
+    @Test
+    public void incrementalCacheDirReusesFragmentsUntilImportsChange() throws IOException {
+        File api = folder.newFolder("api");
+        File common = new File(api, "common.yml");
+        writeCommon(common, "string");
+        write(
+                new File(api, "service.yml"),
+                "types:",
+                "  conjure-imports:",
+                "    common: common.yml",
+                "  definitions:",
+                "    default-package: com.palantir.test.service",
+                "    objects:",
+                "      Request:",
+                "        fields:",
+                "          id: common.Id");
+        File cacheDirectory = new File(folder.getRoot(), "cache");
+        String[] args = {
+            "compile",
+            api.getAbsolutePath(),
+            outputFile.getAbsolutePath(),
+            "--incremental-cache-dir",
+            cacheDirectory.getAbsolutePath()
+        };
+
+        assertThat(new CommandLine(new ConjureCli()).execute(args)).isZero();
+        assertThat(objectNames(ConjureDefinitionReader.read(outputFile))).containsExactly("Request");
+
+        // rename the object in the cached fragments, so that the output shows whether they were used
+        File[] fragments = new File(cacheDirectory, "fragments").listFiles();
+        assertThat(fragments).hasSize(2);
+        for (File fragment : fragments) {
+            String content = new String(Files.readAllBytes(fragment.toPath()), StandardCharsets.UTF_8);
+            Files.write(
+                    fragment.toPath(), content.replace("\"Request\"", "\"Cached\"").getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(new CommandLine(new ConjureCli()).execute(args)).isZero();
+        assertThat(objectNames(ConjureDefinitionReader.read(outputFile))).containsExactly("Cached");
+
+        // changing the imported file must recompile the file that imports it as well
+        writeCommon(common, "integer");
+        assertThat(new CommandLine(new ConjureCli()).execute(args)).isZero();
+        ConjureDefinition definition = ConjureDefinitionReader.read(outputFile);
+        assertThat(objectNames(definition)).containsExactly("Request");
+        assertThat(definition.getTypes())
+                .filteredOn(type -> type.accept(TypeDefinitionVisitor.IS_ALIAS))
+                .extracting(type -> type.accept(TypeDefinitionVisitor.ALIAS).getAlias())
+                .containsExactly(Type.primitive(PrimitiveType.INTEGER));
+    }
+
+    private static List<String> objectNames(ConjureDefinition definition) {
+        return definition.getTypes().stream()
+                .filter(type -> type.accept(TypeDefinitionVisitor.IS_OBJECT))
+                .map(type -> type.accept(TypeDefinitionVisitor.OBJECT).getTypeName().getName())
+                .collect(Collectors.toList());
+    }
+
+    private static void writeCommon(File common, String idType) throws IOException {
+        write(
+                common,
+                "types:",
+                "  definitions:",
+                "    default-package: com.palantir.test.common",
+                "    objects:",
+                "      Id:",
+                "        alias: " + idType);
+    }
+
+    private static void write(File file, String... lines) throws IOException {
+        Files.write(file.toPath(), ImmutableList.copyOf(lines), StandardCharsets.UTF_8);
+    }
 }